@@ -0,0 +1,35 @@
+package tetris;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of State.makeMove, replaying every move of the recorded game
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+	// Number of moves in the recorded game
+	private static final int MOVES = 2000;
+
+	@Benchmark
+	@OperationsPerInvocation(MOVES)
+	public int makeMove(RecordedGame game) {
+		tetris.State s = game.newState();
+		for (int i = 0; i < MOVES; i++) {
+			s.makeMove(game.moves[i]);
+		}
+		return s.getRowsCleared();
+	}
+}
@@ -0,0 +1,38 @@
+package tetris;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full games per second of PlayerSkeleton.playGame.
+ * The weights are weak enough that a game ends after a few hundred rows, and the games cycle through a fixed set
+ * of seeded piece sequences.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+	public static final double[] WEIGHTS = {0.5, -0.5, -0.2, -0.3, -0.5};
+	public static final int SEEDS = 8;
+
+	private PlayerSkeleton player = new PlayerSkeleton(WEIGHTS);
+	private int seed = 0;
+
+	@Benchmark
+	public int playGame() {
+		seed = (seed + 1) % SEEDS;
+		return player.playGame(new RandomPieceSource(seed));
+	}
+}
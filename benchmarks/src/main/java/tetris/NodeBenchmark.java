@@ -0,0 +1,98 @@
+package tetris;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of simulating a move on a search Node, of collecting the features of every placement of a piece and of
+ * sweeping a board for its features, cycling through the recorded boards
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NodeBenchmark {
+	private Node[] boards;
+	private int[][] rows;
+	private int[][] tops;
+	private int position = 0;
+	private int placement = 0;
+	private int piece = 0;
+	private int[] placements = new int[PlacementTable.MAX_PLACEMENTS];
+	private FeatureExtractor classic = new FeatureExtractor(FeatureSet.CLASSIC);
+	private FeatureExtractor all = new FeatureExtractor(new FeatureSet(Feature.values()));
+
+	@Setup
+	public void setUp(RecordedGame game) {
+		rows = game.rows;
+		tops = game.tops;
+		boards = new Node[rows.length];
+		for (int i = 0; i < rows.length; i++) {
+			boards[i] = new Node(RecordedGame.WEIGHTS, rows[i], tops[i]);
+		}
+	}
+
+	// Moves on to the next board
+	private int nextPosition() {
+		position = position + 1 == rows.length ? 0 : position + 1;
+		return position;
+	}
+
+	// One applyMove and undoMove, going through every placement on every board
+	@Benchmark
+	public double applyAndUndo() {
+		placement++;
+		if (placement == PlacementTable.pieceStart[tetris.State.N_PIECES]) {
+			placement = 0;
+			nextPosition();
+		}
+		Node s = boards[position];
+		if (!s.applyMove(placement)) {
+			return 0;
+		}
+		double score = s.getScore();
+		s.undoMove();
+		return score;
+	}
+
+	// The features of every placement of one piece, going through every piece on every board
+	@Benchmark
+	public double collectFeatures() {
+		piece++;
+		if (piece == tetris.State.N_PIECES) {
+			piece = 0;
+			nextPosition();
+		}
+		Node s = boards[position];
+		int n = s.collectFeatures(piece, placements);
+		return n == 0 ? 0 : s.placementFeatures[1][n-1];
+	}
+
+	// One sweep of a board for the classic features
+	@Benchmark
+	public int sweepClassic() {
+		int i = nextPosition();
+		classic.sweep(rows[i], tops[i]);
+		return classic.holes;
+	}
+
+	// One sweep of a board for every feature there is
+	@Benchmark
+	public int sweepAll() {
+		int i = nextPosition();
+		all.sweep(rows[i], tops[i]);
+		return all.rowTransitions;
+	}
+}
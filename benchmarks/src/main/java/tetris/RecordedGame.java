@@ -0,0 +1,75 @@
+package tetris;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The fixed game every benchmark runs on, read from recorded-game.txt.
+ * Replaying it gives the same boards whatever the search does, so numbers stay comparable across engine changes.
+ */
+@State(Scope.Benchmark)
+public class RecordedGame {
+	public static final String RESOURCE = "recorded-game.txt";
+	// A board is kept every this many moves
+	public static final int POSITION_INTERVAL = 20;
+	public static final double[] WEIGHTS = {0.1636736030816534, -0.11117594223369093, -0.20390418721234355, -0.9501423421384158, -0.12846584618379997};
+
+	public int[] pieces;
+	public int[] moves;
+
+	// Boards along the game, with the piece to be played on each
+	public int[][] rows;
+	public int[][] tops;
+	public int[] nextPieces;
+
+	@Setup
+	public void load() throws IOException {
+		List<int[]> lines = new ArrayList<int[]>();
+		try (InputStream in = RecordedGame.class.getResourceAsStream(RESOURCE);
+				BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.startsWith("#") || line.trim().isEmpty()) {
+					continue;
+				}
+				String[] fields = line.trim().split(" ");
+				int[] values = new int[fields.length];
+				for (int i = 0; i < fields.length; i++) {
+					values[i] = Integer.parseInt(fields[i]);
+				}
+				lines.add(values);
+			}
+		}
+		pieces = lines.get(0);
+		moves = lines.get(1);
+
+		int positions = (moves.length + POSITION_INTERVAL - 1) / POSITION_INTERVAL;
+		rows = new int[positions][];
+		tops = new int[positions][];
+		nextPieces = new int[positions];
+		tetris.State s = newState();
+		for (int i = 0; i < moves.length; i++) {
+			if (i % POSITION_INTERVAL == 0) {
+				int k = i / POSITION_INTERVAL;
+				rows[k] = s.getRows().clone();
+				tops[k] = s.getTop().clone();
+				nextPieces[k] = s.getNextPiece();
+			}
+			s.makeMove(moves[i]);
+		}
+	}
+
+	// A new game that will be dealt the recorded pieces
+	public tetris.State newState() {
+		return new tetris.State(new SequencePieceSource(pieces, new RandomPieceSource(0)));
+	}
+}
@@ -0,0 +1,63 @@
+package tetris;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time for PlayerSkeleton to pick one move, cycling through the recorded boards
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+// The Vector API module is added so that simd=true runs the vector scorer
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class SearchBenchmark {
+	@Param({"2"})
+	public int depth;
+	@Param({"0"})
+	public int beamWidth;
+	@Param({"true", "false"})
+	public boolean pruning;
+	// The table is off by default so that every move is searched, rather than found from an earlier iteration
+	@Param({"0"})
+	public int transpositionTableBits;
+	@Param({"true", "false"})
+	public boolean simd;
+
+	private PlayerSkeleton player;
+	private RecordedGame game;
+	private int position = 0;
+
+	@Setup
+	public void setUp(RecordedGame game) {
+		this.game = game;
+		SearchConfig config = new SearchConfig();
+		config.depth = depth;
+		config.beamWidth = beamWidth;
+		config.pruning = pruning;
+		config.transpositionTableBits = transpositionTableBits;
+		config.simd = simd;
+		player = new PlayerSkeleton(RecordedGame.WEIGHTS, config);
+	}
+
+	@Benchmark
+	public int pickMove() {
+		position = position + 1 == game.rows.length ? 0 : position + 1;
+		int piece = game.nextPieces[position];
+		Node s = new Node(RecordedGame.WEIGHTS, game.rows[position], game.tops[position]);
+		return player.expectimaxSearch(s, tetris.State.legalMoves[piece], piece);
+	}
+}
@@ -0,0 +1,53 @@
+package tetris;
+
+/**
+ * A feature of the board left by a placement, scored with a weight of its own (see FeatureSet)
+ * Each feature registers the parts of a FeatureExtractor's sweep it needs and a FeatureEvaluator that reads its
+ * value from them, so a FeatureExtractor works out all the features of a set together, those of the board in
+ * one sweep over it and those of the placement from its PlacementTable number, the row it landed on and the
+ * lines it cleared. A new feature is a new constant here, along with whatever the sweep must count for it.
+ */
+enum Feature {
+	// rows cleared by the placement
+	LINES("lines", FeatureExtractor.SWEEP_COLUMNS, (x, p, row, lines, cleared) -> lines),
+	AGGREGATE_HEIGHT("height", FeatureExtractor.SWEEP_COLUMNS, (x, p, row, lines, cleared) -> x.aggregateHeight),
+	BUMPINESS("bumpiness", FeatureExtractor.SWEEP_COLUMNS, (x, p, row, lines, cleared) -> x.bumpiness),
+	// empty cells below the top of their column
+	HOLES("holes", FeatureExtractor.SWEEP_ROWS, (x, p, row, lines, cleared) -> x.holes),
+	// sum over the columns lower than both neighbours (or the wall) of 1+2+...+depth
+	WELL_SUM("wells", FeatureExtractor.SWEEP_WELLS, (x, p, row, lines, cleared) -> x.wellSum),
+	// filled cells above the lowest hole of their column
+	BLOCKADES("blockades", FeatureExtractor.SWEEP_ROWS, (x, p, row, lines, cleared) -> x.blockades),
+	// filled cells next to empty ones along each row, the walls counting as filled
+	ROW_TRANSITIONS("rowtransitions", FeatureExtractor.SWEEP_ROWS, (x, p, row, lines, cleared) -> x.rowTransitions),
+	// filled cells next to empty ones up each column, the floor counting as filled
+	COLUMN_TRANSITIONS("columntransitions", FeatureExtractor.SWEEP_ROWS, (x, p, row, lines, cleared) -> x.columnTransitions),
+	// height of the middle of the piece that was placed
+	LANDING_HEIGHT("landing", FeatureExtractor.SWEEP_COLUMNS,
+			(x, p, row, lines, cleared) -> p < 0 ? 0 : row + (PlacementTable.height[p]-1) / 2.0),
+	// lines cleared times the cells of the piece that went with them
+	ERODED_CELLS("eroded", FeatureExtractor.SWEEP_COLUMNS, (x, p, row, lines, cleared) -> lines * cleared),
+	// depth of the deepest well
+	WELL_DEPTH("welldepth", FeatureExtractor.SWEEP_WELLS, (x, p, row, lines, cleared) -> x.wellDepth);
+
+	// name used to list the feature on the command line
+	public final String key;
+	// parts of the sweep the feature is read from, FeatureExtractor.SWEEP_* flags
+	public final int sweep;
+	public final FeatureEvaluator evaluator;
+
+	Feature(String key, int sweep, FeatureEvaluator evaluator) {
+		this.key = key;
+		this.sweep = sweep;
+		this.evaluator = evaluator;
+	}
+
+	public static Feature forKey(String key) {
+		for (Feature f : values()) {
+			if (f.key.equals(key)) {
+				return f;
+			}
+		}
+		throw new IllegalArgumentException("unknown feature " + key);
+	}
+}
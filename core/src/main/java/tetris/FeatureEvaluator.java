@@ -0,0 +1,9 @@
+package tetris;
+
+/**
+ * Works out one feature of the board left by a placement from what a FeatureExtractor's sweep found on it, and
+ * from the placement itself (see FeatureExtractor.extract). Each Feature registers one.
+ */
+interface FeatureEvaluator {
+	double value(FeatureExtractor sweep, int placement, int landingRow, int lines, int pieceCellsCleared);
+}
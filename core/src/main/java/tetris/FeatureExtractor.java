@@ -0,0 +1,138 @@
+package tetris;
+
+/**
+ * Works out the board features of a FeatureSet in a single sweep up the rows of the board, allocating nothing.
+ * Each row is a bitmask of its cells, so every step of the sweep covers all the columns at once: the holes,
+ * blockades and transitions of a row are a few mask operations and a bit count. The sweep stops at the highest
+ * column, every row above being empty, and the rows are not read at all when no feature of the set needs them.
+ * The search (Node) and offline analysis (FeatureReport) both score boards through it.
+ * Each feature of the set is then read from the results by the FeatureEvaluator it registered (see Feature).
+ * An extractor keeps the results of its last sweep, so each thread needs its own.
+ */
+class FeatureExtractor {
+	// parts of the sweep a feature can need - the column heights are always swept
+	public static final int SWEEP_COLUMNS = 0;
+	public static final int SWEEP_WELLS = 1;
+	public static final int SWEEP_ROWS = 2;
+
+	public final FeatureSet features;
+
+	// results of the last sweep - the wells and the rows are only swept for features of the set that need them,
+	// and what they give stays 0 otherwise
+	public int aggregateHeight;
+	public int bumpiness;
+	public int wellSum;
+	public int wellDepth;
+	public int holes;
+	public int blockades;
+	public int rowTransitions;
+	public int columnTransitions;
+
+	//the evaluators of the set's features in order, and the parts of the sweep they need
+	private final FeatureEvaluator[] evaluators;
+	private final boolean wantWells;
+	private final boolean wantRows;
+	//scratch space for sweep() - the columns whose top is at each height
+	private final int[] topMask = new int[State.ROWS+1];
+
+	public FeatureExtractor(FeatureSet features) {
+		this.features = features;
+		evaluators = new FeatureEvaluator[features.size()];
+		int sweep = SWEEP_COLUMNS;
+		for (int f = 0; f < evaluators.length; f++) {
+			evaluators[f] = features.features[f].evaluator;
+			sweep |= features.features[f].sweep;
+		}
+		wantWells = (sweep & SWEEP_WELLS) != 0;
+		wantRows = (sweep & SWEEP_ROWS) != 0;
+	}
+
+	/**
+	 * Works out the board features for the given board, in the same layout as State
+	 */
+	public void sweep(int[] rows, int[] top) {
+		aggregateHeight = 0;
+		bumpiness = 0;
+		wellSum = 0;
+		wellDepth = 0;
+		int highest = 0;
+		//the walls are higher than any column
+		int left = State.ROWS;
+		for (int c = 0; c < State.COLS; c++) {
+			int height = top[c];
+			int right = c < State.COLS-1 ? top[c+1] : State.ROWS;
+			aggregateHeight += height;
+			if (c < State.COLS-1) {
+				bumpiness += Math.abs(height - right);
+			}
+			if (wantWells) {
+				int depth = Math.min(left, right) - height;
+				if (depth > 0) {
+					wellSum += depth * (depth+1) / 2;
+					wellDepth = Math.max(wellDepth, depth);
+				}
+			}
+			highest = Math.max(highest, height);
+			topMask[height] |= 1 << c;
+			left = height;
+		}
+
+		holes = 0;
+		blockades = 0;
+		rowTransitions = 0;
+		columnTransitions = 0;
+		if (wantRows) {
+			//rows a piece can fill - the one above is only there to spot a lost game
+			int playable = State.ROWS-1;
+			//columns whose top is above the row, those with a hole in or below it, and the row below (the floor
+			//counting as filled)
+			int belowTop = State.FULL_ROW & ~topMask[0];
+			int holed = 0;
+			int below = State.FULL_ROW;
+			for (int r = 0; r < highest; r++) {
+				int row = rows[r];
+				int rowHoles = belowTop & ~row;
+				holes += Integer.bitCount(rowHoles);
+				blockades += Integer.bitCount(row & holed);
+				holed |= rowHoles;
+				columnTransitions += Integer.bitCount(row ^ below);
+				below = row;
+				//the walls count as filled
+				int walled = (row << 1) | 1 | (1 << (State.COLS+1));
+				rowTransitions += Integer.bitCount((walled ^ (walled >> 1)) & ((1 << (State.COLS+1)) - 1));
+				belowTop &= ~topMask[r+1];
+			}
+			//the first empty row meets the top of every column, and each empty row meets both walls - when the
+			//highest column reaches the top playable row, the empty space above the board is that first empty row
+			columnTransitions += Integer.bitCount(below);
+			rowTransitions += 2 * (playable - highest);
+		}
+
+		for (int c = 0; c < State.COLS; c++) {
+			topMask[top[c]] = 0;
+		}
+	}
+
+	/**
+	 * Sweeps the board left by a placement (see Feature) and writes feature f of the set to out[f][k]
+	 */
+	public void extract(int[] rows, int[] top, int placement, int landingRow, int lines, int pieceCellsCleared, double[][] out, int k) {
+		sweep(rows, top);
+		for (int f = 0; f < evaluators.length; f++) {
+			out[f][k] = evaluators[f].value(this, placement, landingRow, lines, pieceCellsCleared);
+		}
+	}
+
+	// how far column c is below its lower neighbour (the wall counting as infinitely high), 0 if it is no well
+	public static int wellDepth(int[] top, int c) {
+		int depth;
+		if (c == 0) {
+			depth = top[c+1] - top[c];
+		} else if (c == State.COLS-1) {
+			depth = top[c-1] - top[c];
+		} else {
+			depth = Math.min(top[c-1], top[c+1]) - top[c];
+		}
+		return Math.max(0, depth);
+	}
+}
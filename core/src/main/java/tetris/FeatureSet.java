@@ -0,0 +1,58 @@
+package tetris;
+
+import java.util.Arrays;
+
+/**
+ * The features a board is scored by, in the order of the weights that go with them
+ * CLASSIC is the set the weights have always had: completeLines, aggregateHeight, bumpiness, holes, wellSum.
+ * A set is written as its feature keys separated by commas, e.g. "lines,holes,landing,eroded".
+ */
+class FeatureSet {
+	public static final FeatureSet CLASSIC = new FeatureSet(Feature.LINES, Feature.AGGREGATE_HEIGHT, Feature.BUMPINESS, Feature.HOLES, Feature.WELL_SUM);
+
+	public final Feature[] features;
+
+	public FeatureSet(Feature... features) {
+		if (features.length == 0) {
+			throw new IllegalArgumentException("a feature set needs at least one feature");
+		}
+		this.features = features.clone();
+	}
+
+	public static FeatureSet parse(String keys) {
+		String[] names = keys.split(",");
+		Feature[] features = new Feature[names.length];
+		for (int i = 0; i < names.length; i++) {
+			features[i] = Feature.forKey(names[i].trim().toLowerCase());
+		}
+		return new FeatureSet(features);
+	}
+
+	// number of weights a vector for this set has
+	public int size() {
+		return features.length;
+	}
+
+	public boolean isClassic() {
+		return equals(CLASSIC);
+	}
+
+	public boolean equals(Object o) {
+		return o instanceof FeatureSet && Arrays.equals(features, ((FeatureSet) o).features);
+	}
+
+	public int hashCode() {
+		return Arrays.hashCode(features);
+	}
+
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Feature f : features) {
+			if (sb.length() > 0) {
+				sb.append(',');
+			}
+			sb.append(f.key);
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,9 @@
+package tetris;
+
+/**
+ * Supplies the pieces of a game, one per turn
+ */
+interface PieceSource {
+	//returns 0-6
+	int nextPiece();
+}
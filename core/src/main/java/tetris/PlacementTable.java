@@ -0,0 +1,79 @@
+package tetris;
+
+/**
+ * Every placement of every piece compiled into flat arrays, so that placing a piece does not have to
+ * walk the nested piece tables in State.
+ * Placements are numbered piece by piece, in the same order as State.legalMoves, so the placements of
+ * piece p are pieceStart[p] to pieceStart[p+1]-1 and move i of State.legalMoves[p] is placement pieceStart[p]+i.
+ * Per-column and per-row data of placement i is stored at i*MAX_SIZE onwards.
+ */
+class PlacementTable {
+	//widest and tallest a piece can be
+	public static final int MAX_SIZE = 4;
+
+	public static final int[] pieceStart = new int[State.N_PIECES+1];
+	//most placements any one piece has
+	public static final int MAX_PLACEMENTS;
+	//first placement of each orientation, indexed by piece*MAX_SIZE+orient
+	private static final int[] orientStart = new int[State.N_PIECES*MAX_SIZE];
+
+	public static final int[] orient;
+	public static final int[] slot;
+	public static final int[] width;
+	public static final int[] height;
+	//lowest and highest+1 filled row of each column of the piece, relative to the bottom of the piece
+	public static final int[] columnBottom;
+	public static final int[] columnTop;
+	//filled cells in each row of the piece as a row bitmask, already shifted to the slot
+	public static final int[] rowCells;
+
+	static {
+		int n = 0;
+		for(int i = 0; i < State.N_PIECES; i++) {
+			pieceStart[i] = n;
+			for(int j = 0; j < State.pOrients[i]; j++) {
+				orientStart[i*MAX_SIZE+j] = n;
+				n += State.COLS+1-State.pWidth[i][j];
+			}
+		}
+		pieceStart[State.N_PIECES] = n;
+		int most = 0;
+		for(int i = 0; i < State.N_PIECES; i++) {
+			most = Math.max(most, pieceStart[i+1]-pieceStart[i]);
+		}
+		MAX_PLACEMENTS = most;
+
+		orient = new int[n];
+		slot = new int[n];
+		width = new int[n];
+		height = new int[n];
+		columnBottom = new int[n*MAX_SIZE];
+		columnTop = new int[n*MAX_SIZE];
+		rowCells = new int[n*MAX_SIZE];
+
+		n = 0;
+		for(int i = 0; i < State.N_PIECES; i++) {
+			for(int j = 0; j < State.pOrients[i]; j++) {
+				for(int k = 0; k < State.COLS+1-State.pWidth[i][j]; k++) {
+					orient[n] = j;
+					slot[n] = k;
+					width[n] = State.pWidth[i][j];
+					height[n] = State.pHeight[i][j];
+					for(int c = 0; c < width[n]; c++) {
+						columnBottom[n*MAX_SIZE+c] = State.pBottom[i][j][c];
+						columnTop[n*MAX_SIZE+c] = State.pTop[i][j][c];
+						for(int h = State.pBottom[i][j][c]; h < State.pTop[i][j][c]; h++) {
+							rowCells[n*MAX_SIZE+h] |= 1 << (k+c);
+						}
+					}
+					n++;
+				}
+			}
+		}
+	}
+
+	// Placement number of a piece in the given orientation and slot
+	public static int index(int piece, int orient, int slot) {
+		return orientStart[piece*MAX_SIZE+orient] + slot;
+	}
+}
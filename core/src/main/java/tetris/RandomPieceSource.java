@@ -0,0 +1,33 @@
+package tetris;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws pieces uniformly at random from a generator owned by the game, so games on different threads never
+ * contend for one. Two sources with the same seed give the same pieces.
+ */
+class RandomPieceSource implements PieceSource {
+	private SplittableRandom random;
+	
+	public RandomPieceSource() {
+		random = new SplittableRandom();
+	}
+	
+	public RandomPieceSource(long seed) {
+		random = new SplittableRandom(seed);
+	}
+	
+	public int nextPiece() {
+		return random.nextInt(State.N_PIECES);
+	}
+	
+	// A pre-generated sequence of the given length, the same pieces a source with this seed would give
+	public static int[] generate(long seed, int length) {
+		RandomPieceSource source = new RandomPieceSource(seed);
+		int[] pieces = new int[length];
+		for(int i = 0; i < length; i++) {
+			pieces[i] = source.nextPiece();
+		}
+		return pieces;
+	}
+}
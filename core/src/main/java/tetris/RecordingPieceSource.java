@@ -0,0 +1,30 @@
+package tetris;
+
+import java.util.Arrays;
+
+/**
+ * Passes on the pieces of another source and keeps a copy of them, so that the game can be replayed
+ */
+class RecordingPieceSource implements PieceSource {
+	private PieceSource source;
+	private int[] pieces = new int[64];
+	private int length = 0;
+	
+	public RecordingPieceSource(PieceSource source) {
+		this.source = source;
+	}
+	
+	public int nextPiece() {
+		int piece = source.nextPiece();
+		if(length == pieces.length) {
+			pieces = Arrays.copyOf(pieces, length*2);
+		}
+		pieces[length++] = piece;
+		return piece;
+	}
+	
+	// Every piece given out so far, in order
+	public int[] getPieces() {
+		return Arrays.copyOf(pieces, length);
+	}
+}
@@ -0,0 +1,23 @@
+package tetris;
+
+/**
+ * Plays back a fixed sequence of pieces, such as a pre-generated one or one recorded from an earlier game.
+ * Once the sequence runs out the pieces come from the next source.
+ */
+class SequencePieceSource implements PieceSource {
+	private int[] pieces;
+	private int position = 0;
+	private PieceSource next;
+	
+	public SequencePieceSource(int[] pieces, PieceSource next) {
+		this.pieces = pieces;
+		this.next = next;
+	}
+	
+	public int nextPiece() {
+		if(position < pieces.length) {
+			return pieces[position++];
+		}
+		return next.nextPiece();
+	}
+}
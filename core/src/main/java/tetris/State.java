@@ -1,7 +1,4 @@
-import java.awt.Color;
-
-
-
+package tetris;
 
 public class State {
 	public static final int COLS = 10;
@@ -16,14 +13,21 @@ public class State {
 	
 
 	
-	public TLabel label;
+	//draws this state - nothing unless a TFrame is attached
+	public StateRenderer renderer = StateRenderer.NONE;
 	
 	//current turn
 	private int turn = 0;
 	private int cleared = 0;
 	
-	//each square in the grid - int means empty - other values mean the turn it was placed
+	//a full row - one bit per column
+	public static final int FULL_ROW = (1 << COLS) - 1;
+	
+	//each row of the grid as a bitmask - bit c is set if column c is filled
+	private int[] rows = new int[ROWS];
+	//lazily built 2D view of rows for the visualizer - 0 means empty, 1 means filled
 	private int[][] field = new int[ROWS][COLS];
+	private boolean fieldDirty = false;
 	//top row+1 of each column
 	//0 means empty
 	private int[] top = new int[COLS];
@@ -31,6 +35,8 @@ public class State {
 	
 	//number of next piece
 	protected int nextPiece;
+	//where the pieces of this game come from
+	private PieceSource pieceSource;
 	
 	
 	
@@ -56,7 +62,7 @@ public class State {
 			{3,2}
 	};
 	//height of the pieces [piece ID][orientation]
-	private static int[][] pHeight = {
+	protected static int[][] pHeight = {
 			{2},
 			{4,1},
 			{3,2,3,2},
@@ -65,7 +71,7 @@ public class State {
 			{2,3},
 			{2,3}
 	};
-	private static int[][][] pBottom = {
+	protected static int[][][] pBottom = {
 		{{0,0}},
 		{{0},{0,0,0,0}},
 		{{0,0},{0,1,1},{2,0},{0,0,0}},
@@ -74,7 +80,7 @@ public class State {
 		{{0,0,1},{1,0}},
 		{{1,0,0},{0,1}}
 	};
-	private static int[][][] pTop = {
+	protected static int[][][] pTop = {
 		{{2,2}},
 		{{4},{1,1,1,1}},
 		{{3,1},{2,2,2},{3,3},{1,1,2}},
@@ -111,9 +117,23 @@ public class State {
 	}
 	
 	
+	//builds the 2D view from the row bitmasks if a move has been made since the last call
 	public int[][] getField() {
+		if(fieldDirty) {
+			for(int r = 0; r < ROWS; r++) {
+				int row = rows[r];
+				for(int c = 0; c < COLS; c++) {
+					field[r][c] = (row >>> c) & 1;
+				}
+			}
+			fieldDirty = false;
+		}
 		return field;
 	}
+	
+	public int[] getRows() {
+		return rows;
+	}
 
 	public int[] getTop() {
 		return top;
@@ -158,15 +178,16 @@ public class State {
 	
 	
 	
-	//constructor
+	//constructor - pieces are drawn at random from a generator of this game's own
 	public State() {
-		nextPiece = randomPiece();
-
+		this(new RandomPieceSource());
 	}
 	
-	//random integer, returns 0-6
-	private int randomPiece() {
-		return (int)(Math.random()*N_PIECES);
+	//constructor - pieces are taken from the given source
+	public State(PieceSource pieceSource) {
+		this.pieceSource = pieceSource;
+		nextPiece = pieceSource.nextPiece();
+
 	}
 	
 
@@ -190,130 +211,76 @@ public class State {
 	//returns false if you lose - true otherwise
 	public boolean makeMove(int orient, int slot) {
 		turn++;
+		int p = PlacementTable.index(nextPiece, orient, slot);
+		int cells = p*PlacementTable.MAX_SIZE;
 		//height if the first column makes contact
-		int height = top[slot]-pBottom[nextPiece][orient][0];
+		int height = top[slot]-PlacementTable.columnBottom[cells];
 		//for each column beyond the first in the piece
-		for(int c = 1; c < pWidth[nextPiece][orient];c++) {
-			height = Math.max(height,top[slot+c]-pBottom[nextPiece][orient][c]);
+		for(int c = 1; c < PlacementTable.width[p];c++) {
+			height = Math.max(height,top[slot+c]-PlacementTable.columnBottom[cells+c]);
 		}
 		
 		//check if game ended
-		if(height+pHeight[nextPiece][orient] >= ROWS) {
+		if(height+PlacementTable.height[p] >= ROWS) {
 			lost = true;
 			return false;
 		}
 
 		
-		//for each column in the piece - fill in the appropriate blocks
-		for(int i = 0; i < pWidth[nextPiece][orient]; i++) {
-			
-			//from bottom to top of brick
-			for(int h = height+pBottom[nextPiece][orient][i]; h < height+pTop[nextPiece][orient][i]; h++) {
-				field[h][i+slot] = turn;
-			}
+		//for each row of the piece - fill in the appropriate blocks
+		for(int h = 0; h < PlacementTable.height[p]; h++) {
+			rows[height+h] |= PlacementTable.rowCells[cells+h];
 		}
 		
 		//adjust top
-		for(int c = 0; c < pWidth[nextPiece][orient]; c++) {
-			top[slot+c]=height+pTop[nextPiece][orient][c];
+		for(int c = 0; c < PlacementTable.width[p]; c++) {
+			top[slot+c]=height+PlacementTable.columnTop[cells+c];
 		}
 		
 		int rowsCleared = 0;
 		
 		//check for full rows - starting at the top
-		for(int r = height+pHeight[nextPiece][orient]-1; r >= height; r--) {
-			//check all columns in the row
-			boolean full = true;
-			for(int c = 0; c < COLS; c++) {
-				if(field[r][c] == 0) {
-					full = false;
-					break;
-				}
-			}
+		for(int r = height+PlacementTable.height[p]-1; r >= height; r--) {
 			//if the row was full - remove it and slide above stuff down
-			if(full) {
+			if(rows[r] == FULL_ROW) {
 				rowsCleared++;
 				cleared++;
-				//for each column
+				System.arraycopy(rows, r+1, rows, r, ROWS-1-r);
+				rows[ROWS-1] = 0;
+				//lower the top of each column
 				for(int c = 0; c < COLS; c++) {
-
-					//slide down all bricks
-					for(int i = r; i < top[c]; i++) {
-						field[i][c] = field[i+1][c];
-					}
-					//lower the top
+					int bit = 1 << c;
 					top[c]--;
-					while(top[c]>=1 && field[top[c]-1][c]==0)	top[c]--;
+					while(top[c]>=1 && (rows[top[c]-1] & bit)==0)	top[c]--;
 				}
 			}
 		}
+		fieldDirty = true;
 	
 
 		//pick a new piece
-		nextPiece = randomPiece();
+		nextPiece = pieceSource.nextPiece();
 		
 
 		
 		return true;
 	}
 	
+	//visualization - see StateRenderer
 	public void draw() {
-		label.clear();
-		label.setPenRadius();
-		//outline board
-		label.line(0, 0, 0, ROWS+5);
-		label.line(COLS, 0, COLS, ROWS+5);
-		label.line(0, 0, COLS, 0);
-		label.line(0, ROWS-1, COLS, ROWS-1);
-		
-		//show bricks
-				
-		for(int c = 0; c < COLS; c++) {
-			for(int r = 0; r < top[c]; r++) {
-				if(field[r][c] != 0) {
-					drawBrick(c,r);
-				}
-			}
-		}
-		
-		for(int i = 0; i < COLS; i++) {
-			label.setPenColor(Color.red);
-			label.line(i, top[i], i+1, top[i]);
-			label.setPenColor();
-		}
-		
-		label.show();
-		
-		
-	}
-	
-	public static final Color brickCol = Color.gray; 
-	
-	private void drawBrick(int c, int r) {
-		label.filledRectangleLL(c, r, 1, 1, brickCol);
-		label.rectangleLL(c, r, 1, 1);
+		renderer.draw(this);
 	}
 	
 	public void drawNext(int slot, int orient) {
-		for(int i = 0; i < pWidth[nextPiece][orient]; i++) {
-			for(int j = pBottom[nextPiece][orient][i]; j <pTop[nextPiece][orient][i]; j++) {
-				drawBrick(i+slot, j+ROWS+1);
-			}
-		}
-		label.show();
+		renderer.drawNext(this, slot, orient);
 	}
 	
-	//visualization
 	//clears the area where the next piece is shown (top)
 	public void clearNext() {
-		label.filledRectangleLL(0, ROWS+.9, COLS, 4.2, TLabel.DEFAULT_CLEAR_COLOR);
-		label.line(0, 0, 0, ROWS+5);
-		label.line(COLS, 0, COLS, ROWS+5);
+		renderer.clearNext(this);
 	}
 	
 
 	
 
 }
-
-
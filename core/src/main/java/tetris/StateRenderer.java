@@ -0,0 +1,22 @@
+package tetris;
+
+/**
+ * Draws a State. State calls its renderer from draw, drawNext and clearNext, so
+ * the simulation itself never touches AWT; NONE draws nothing.
+ */
+public interface StateRenderer {
+	StateRenderer NONE = new StateRenderer() {
+		public void draw(State s) {}
+		public void drawNext(State s, int slot, int orient) {}
+		public void clearNext(State s) {}
+	};
+	
+	//draws the board
+	void draw(State s);
+	
+	//draws the next piece above the board
+	void drawNext(State s, int slot, int orient);
+	
+	//clears the area where the next piece is shown (top)
+	void clearNext(State s);
+}
@@ -0,0 +1,40 @@
+package tetris;
+
+/**
+ * Simple stopwatch class
+ * @author tanzh
+ *
+ */
+class StopWatch {
+	long startTime;
+	long elapsedTime;
+	
+	public StopWatch() {
+		startTime = 0;
+		elapsedTime = 0;
+	}
+	
+	public void start() {
+		startTime = System.nanoTime();
+	}
+	
+	public void reset() {
+		elapsedTime = 0;
+	}
+	
+	// Used for simple start-stop functionality.
+	// Returns the time elapsed in ms.
+	public long getTime() {
+		return (System.nanoTime() - startTime)/1000000;
+	}
+	
+	// Keeps track of the accumulated time.
+	public void clock() {
+		elapsedTime += System.nanoTime() - startTime;
+	}
+	
+	// Gets the time elapsed
+	public long getElapsedTime() {
+		return elapsedTime/1000000;
+	}
+}
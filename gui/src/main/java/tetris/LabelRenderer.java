@@ -0,0 +1,67 @@
+package tetris;
+
+import java.awt.Color;
+
+/**
+ * Draws a State onto a TLabel.
+ */
+public class LabelRenderer implements StateRenderer {
+	public static final Color brickCol = Color.gray; 
+	
+	public final TLabel label;
+	
+	public LabelRenderer(TLabel label) {
+		this.label = label;
+	}
+	
+	public void draw(State s) {
+		int[] rows = s.getRows();
+		int[] top = s.getTop();
+		label.clear();
+		label.setPenRadius();
+		//outline board
+		label.line(0, 0, 0, State.ROWS+5);
+		label.line(State.COLS, 0, State.COLS, State.ROWS+5);
+		label.line(0, 0, State.COLS, 0);
+		label.line(0, State.ROWS-1, State.COLS, State.ROWS-1);
+		
+		//show bricks
+		for(int c = 0; c < State.COLS; c++) {
+			int bit = 1 << c;
+			for(int r = 0; r < top[c]; r++) {
+				if((rows[r] & bit) != 0) {
+					drawBrick(c,r);
+				}
+			}
+		}
+		
+		for(int i = 0; i < State.COLS; i++) {
+			label.setPenColor(Color.red);
+			label.line(i, top[i], i+1, top[i]);
+			label.setPenColor();
+		}
+		
+		label.show();
+	}
+	
+	private void drawBrick(int c, int r) {
+		label.filledRectangleLL(c, r, 1, 1, brickCol);
+		label.rectangleLL(c, r, 1, 1);
+	}
+	
+	public void drawNext(State s, int slot, int orient) {
+		int piece = s.getNextPiece();
+		for(int i = 0; i < State.pWidth[piece][orient]; i++) {
+			for(int j = State.pBottom[piece][orient][i]; j < State.pTop[piece][orient][i]; j++) {
+				drawBrick(i+slot, j+State.ROWS+1);
+			}
+		}
+		label.show();
+	}
+	
+	public void clearNext(State s) {
+		label.filledRectangleLL(0, State.ROWS+.9, State.COLS, 4.2, TLabel.DEFAULT_CLEAR_COLOR);
+		label.line(0, 0, 0, State.ROWS+5);
+		label.line(State.COLS, 0, State.COLS, State.ROWS+5);
+	}
+}
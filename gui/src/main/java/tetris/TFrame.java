@@ -1,3 +1,5 @@
+package tetris;
+
 import java.awt.Graphics2D;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
@@ -13,6 +15,7 @@ import javax.swing.JFrame;
 public class TFrame extends JFrame implements KeyListener{
 	private static final long serialVersionUID = 1L;
 	public TLabel label = new TLabel(300,700);
+	public LabelRenderer renderer = new LabelRenderer(label);
 	public State s;
 	
 	public int orient, slot;
@@ -25,7 +28,7 @@ public class TFrame extends JFrame implements KeyListener{
 	//constructor
 	public TFrame (State s){
 		this.s = s;
-		s.label = label;
+		s.renderer = renderer;
 		setResizable(false);
 		setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);            // closes all windows when this is closed
 		setTitle("Tetris BKW");
@@ -40,16 +43,16 @@ public class TFrame extends JFrame implements KeyListener{
 	
 	//switches which state is attached to this TFrame
 	public void bindState(State s) {
-		if(s!= null)	s.label = null;
+		if(this.s != null)	this.s.renderer = StateRenderer.NONE;
 		this.s = s;
-		s.label = label;
+		s.renderer = renderer;
 	}
 	
 	///
 	/// ADDED BY DON (AKA Pimp Masta) 1/22/09
 	///
 	public TFrame (){
-		s.label = label;
+		s.renderer = renderer;
 		setResizable(false);
 		setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);            // closes all windows when this is closed
 		setTitle("Eric Whitman's Tetris Simulator");
@@ -0,0 +1,53 @@
+package tetris;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Writes the learner's files (checkpoints, the fitness cache, migrants) whole or not at all: to a temporary file
+ * next to the target that is then moved over it, so that a crash while writing leaves the previous file intact and
+ * a reader in another process only ever sees whole files.
+ * createTempFile makes files only their owner can read, and the move keeps that, so the file is given the read and
+ * write permissions of its directory instead; processes of other users sharing the directory can then read it.
+ */
+class AtomicFiles {
+	interface Writer {
+		void write(DataOutputStream out) throws IOException;
+	}
+	
+	public static void write(Path file, Writer writer) throws IOException {
+		Path dir = file.toAbsolutePath().getParent();
+		Files.createDirectories(dir);
+		Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				writer.write(out);
+			}
+			if (Files.getFileStore(dir).supportsFileAttributeView(PosixFileAttributeView.class)) {
+				Files.setPosixFilePermissions(tmp, filePermissions(Files.getPosixFilePermissions(dir)));
+			}
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+	
+	// The permissions of a directory without its execute (search) bits
+	private static Set<PosixFilePermission> filePermissions(Set<PosixFilePermission> dir) {
+		Set<PosixFilePermission> permissions = EnumSet.noneOf(PosixFilePermission.class);
+		for (PosixFilePermission p : dir) {
+			if (p != PosixFilePermission.OWNER_EXECUTE && p != PosixFilePermission.GROUP_EXECUTE && p != PosixFilePermission.OTHERS_EXECUTE) {
+				permissions.add(p);
+			}
+		}
+		return permissions;
+	}
+}
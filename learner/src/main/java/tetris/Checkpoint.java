@@ -0,0 +1,177 @@
+package tetris;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * A GeneticLearner run saved between generations: the features learnt, the seed, the number of generations
+ * completed and every vector of every island this process runs with its fitness, so that a restarted run
+ * carries on without playing any game again.
+ * The populations' Randoms are not stored; each island draws from generationRandom(seed, island, generation)
+ * every generation, so the seed and the generation are all that is needed to pick up the same random choices.
+ */
+class Checkpoint {
+	private static final int MAGIC = 0x54474133; // "TGA3"
+	
+	public FeatureSet features;
+	public long seed;
+	public int generation;
+	// Size of each island's population
+	public int populationSize;
+	public int firstIsland;
+	public List<List<WeightVector>> islands;
+	
+	public Checkpoint(long seed, int generation, int firstIsland, List<Population> populations) {
+		this.seed = seed;
+		this.generation = generation;
+		this.firstIsland = firstIsland;
+		features = populations.get(0).evaluator.features;
+		populationSize = populations.get(0).originalSize;
+		islands = new ArrayList<List<WeightVector>>();
+		for (Population p : populations) {
+			islands.add(new ArrayList<WeightVector>(p.vectors));
+		}
+	}
+	
+	/**
+	 * A checkpoint of islands that are still being built, each holding the vectors evaluated so far
+	 */
+	public Checkpoint(long seed, FeatureSet features, int populationSize, int firstIsland, List<List<WeightVector>> built) {
+		this.seed = seed;
+		this.features = features;
+		this.populationSize = populationSize;
+		this.firstIsland = firstIsland;
+		generation = 0;
+		islands = new ArrayList<List<WeightVector>>();
+		for (List<WeightVector> vectors : built) {
+			islands.add(new ArrayList<WeightVector>(vectors));
+		}
+	}
+	
+	private Checkpoint() {
+	}
+	
+	/**
+	 * Checks that a run of localIslands islands from firstIsland, learning weights for features (null if it
+	 * was not told which), can carry on from this checkpoint
+	 * @throws IllegalArgumentException saying what the checkpoint holds instead
+	 */
+	public void checkResumable(int firstIsland, int localIslands, FeatureSet features) {
+		if (this.firstIsland != firstIsland || islands.size() != localIslands) {
+			throw new IllegalArgumentException("holds " + islands.size() + " islands from island " + this.firstIsland
+					+ ", not " + localIslands + " from island " + firstIsland);
+		}
+		if (features != null && !features.equals(this.features)) {
+			throw new IllegalArgumentException("holds weights for the features " + this.features + ", not " + features);
+		}
+	}
+	
+	/**
+	 * Whether the run stopped while building its initial islands, so that some are short of populationSize
+	 */
+	public boolean isPartial() {
+		if (generation > 0) {
+			return false;
+		}
+		for (List<WeightVector> island : islands) {
+			if (island.size() < populationSize) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * The random numbers for the given island and generation, 0 being the initial population
+	 * Piece sequences use seed + i, so these start from seed - 1 - generation to stay clear of them
+	 */
+	public static Random generationRandom(long seed, int island, int generation) {
+		long generationSeed = new SplittableRandom(seed - 1 - generation).nextLong();
+		return new Random(new SplittableRandom(generationSeed + island).nextLong());
+	}
+	
+	/**
+	 * Writes the checkpoint to a temporary file next to file and then moves it over file,
+	 * so that a crash while writing leaves the previous checkpoint intact
+	 */
+	public void save(Path file) throws IOException {
+		AtomicFiles.write(file, out -> {
+			out.writeInt(MAGIC);
+			out.writeUTF(features.toString());
+			out.writeLong(seed);
+			out.writeInt(generation);
+			out.writeInt(populationSize);
+			out.writeInt(firstIsland);
+			out.writeInt(islands.size());
+			for (List<WeightVector> island : islands) {
+				writeVectors(out, island);
+			}
+		});
+	}
+	
+	public static Checkpoint load(Path file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException(file + " is not a population checkpoint");
+			}
+			Checkpoint c = new Checkpoint();
+			try {
+				c.features = FeatureSet.parse(in.readUTF());
+			} catch (IllegalArgumentException e) {
+				throw new IOException(file + ": " + e.getMessage());
+			}
+			c.seed = in.readLong();
+			c.generation = in.readInt();
+			c.populationSize = in.readInt();
+			c.firstIsland = in.readInt();
+			int islands = in.readInt();
+			c.islands = new ArrayList<List<WeightVector>>(islands);
+			for (int i = 0; i < islands; i++) {
+				List<WeightVector> vectors = readVectors(in);
+				if (!vectors.isEmpty() && vectors.get(0).weights.length != c.features.size()) {
+					throw new IOException("vectors have " + vectors.get(0).weights.length + " weights, expected " + c.features.size());
+				}
+				c.islands.add(vectors);
+			}
+			return c;
+		}
+	}
+	
+	/**
+	 * Writes the weights and fitness of each vector, preceded by the number of weights and of vectors
+	 * The vectors all have the same number of weights.
+	 */
+	public static void writeVectors(DataOutputStream out, List<WeightVector> vectors) throws IOException {
+		int heuristics = vectors.isEmpty() ? 0 : vectors.get(0).weights.length;
+		out.writeInt(heuristics);
+		out.writeInt(vectors.size());
+		for (WeightVector v : vectors) {
+			for (int i = 0; i < heuristics; i++) {
+				out.writeDouble(v.weights[i]);
+			}
+			out.writeDouble(v.fitness);
+		}
+	}
+	
+	public static List<WeightVector> readVectors(DataInputStream in) throws IOException {
+		int heuristics = in.readInt();
+		int size = in.readInt();
+		List<WeightVector> vectors = new ArrayList<WeightVector>(size);
+		for (int v = 0; v < size; v++) {
+			double[] weights = new double[heuristics];
+			for (int i = 0; i < heuristics; i++) {
+				weights[i] = in.readDouble();
+			}
+			vectors.add(new WeightVector(weights, in.readDouble()));
+		}
+		return vectors;
+	}
+}
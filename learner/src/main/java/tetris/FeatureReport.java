@@ -0,0 +1,48 @@
+package tetris;
+
+/**
+ * Offline analysis of the boards a game goes through: plays one game with the default player and prints the
+ * features of the board left by every move as comma-separated values, one column per feature, to be studied or
+ * fitted outside the learners. The features are worked out by the same FeatureExtractor the search uses.
+ * Usage: FeatureReport [moves] [seed] [features, all of them by default] > features.csv
+ */
+public class FeatureReport {
+
+	public static void main(String[] args) {
+		long maxMoves = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : System.currentTimeMillis();
+		FeatureSet features;
+		try {
+			features = args.length > 2 ? FeatureSet.parse(args[2]) : new FeatureSet(Feature.values());
+		} catch (IllegalArgumentException e) {
+			System.out.println("error: " + e.getMessage());
+			return;
+		}
+
+		PlayerSkeleton player = new PlayerSkeleton(PlayerSkeleton.WEIGHTS);
+		State s = new State(new RandomPieceSource(seed));
+		// Only the features of the boards are wanted, so the weights are never used
+		double[] unused = new double[features.size()];
+		double[][] values = new double[features.size()][1];
+		StringBuilder line = new StringBuilder();
+		System.out.println("move,piece," + features);
+		while (!s.hasLost() && s.getTurnNumber() < maxMoves) {
+			int piece = s.getNextPiece();
+			int move = player.pickMove(s, s.legalMoves());
+			Node board = new Node(features, unused, s.getRows(), s.getTop());
+			boolean placed = board.applyMove(PlacementTable.pieceStart[piece] + move);
+			s.makeMove(move);
+			if (!placed) {
+				break;
+			}
+			board.evaluateFeatures(values, 0);
+
+			line.setLength(0);
+			line.append(s.getTurnNumber()).append(',').append(piece);
+			for (double[] v : values) {
+				line.append(',').append(v[0]);
+			}
+			System.out.println(line);
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package tetris;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Migration through files in a directory shared by several processes, each running some of the islands
+ * Every send is one file named to-<island>-from-<island>-<n>.mig, written under a temporary name and then
+ * moved into place, so a receiver only ever sees whole files; receiving reads and deletes them.
+ */
+class FileMigration implements Migration {
+	private Path dir;
+	// Makes the names of one process's sends unique
+	private AtomicLong sends = new AtomicLong(System.nanoTime());
+	
+	public FileMigration(Path dir) throws IOException {
+		this.dir = dir;
+		Files.createDirectories(dir);
+	}
+	
+	public void send(int from, int to, List<WeightVector> migrants) throws IOException {
+		Path file = dir.resolve("to-" + to + "-from-" + from + "-" + sends.getAndIncrement() + ".mig");
+		AtomicFiles.write(file, out -> Checkpoint.writeVectors(out, migrants));
+	}
+	
+	public List<WeightVector> receive(int island) throws IOException {
+		List<WeightVector> received = new ArrayList<WeightVector>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "to-" + island + "-from-*.mig")) {
+			for (Path file : files) {
+				try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+					received.addAll(Checkpoint.readVectors(in));
+				}
+				Files.delete(file);
+			}
+		}
+		return received;
+	}
+}
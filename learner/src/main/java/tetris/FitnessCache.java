@@ -0,0 +1,206 @@
+package tetris;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Game results of the weight vectors evaluated so far, keyed by their normalized weights rounded to a
+ * multiple of quantum, so that an offspring equal or very close to an earlier vector reuses its games.
+ * Each entry keeps a running mean and variance of the scores, so games played for it later add to it.
+ * Holds at most capacity entries, dropping the least recently used one when full.
+ * The same weights make a different player with a different FeatureSet, so a cache only holds vectors of one set.
+ * Not thread-safe; FitnessEvaluator locks the cache itself around every use.
+ */
+class FitnessCache {
+	private static final int MAGIC = 0x54464333; // "TFC3"
+	
+	/**
+	 * The scores of every game played with one weight vector, kept as a running mean and variance,
+	 * along with the rows, pieces and losses of all its games
+	 */
+	public static class Entry {
+		public long games;
+		public double mean;
+		// Sum of squared differences from the mean
+		private double m2;
+		public long rows;
+		public long pieces;
+		// Games that ended in a loss rather than being cut off
+		public long deaths;
+		// Game numbers handed out so far, which can run ahead of games while they are being played
+		private long scheduled;
+		
+		/**
+		 * Adds a game that cleared score rows in piecesPlayed pieces. A game cut off by the clock before
+		 * maxMoves counts as if it had gone on to maxMoves at the rate it was clearing rows; one that was lost
+		 * or reached maxMoves counts as its rows. Every game is thus worth at most what maxMoves allows, so
+		 * the mean does not grow with the number of games played.
+		 */
+		public void add(int score, long piecesPlayed, boolean lost, long maxMoves) {
+			double value = score;
+			if (!lost && piecesPlayed > 0 && maxMoves != Long.MAX_VALUE) {
+				value *= Math.max(1.0, (double) maxMoves/piecesPlayed);
+			}
+			games++;
+			double delta = value - mean;
+			mean += delta/games;
+			m2 += delta*(value - mean);
+			rows += score;
+			pieces += piecesPlayed;
+			if (lost) {
+				deaths++;
+			}
+		}
+		
+		/**
+		 * Hands out the game numbers for the next count games of this entry and returns the first,
+		 * so that two batches playing the same entry at once do not replay each other's piece sequences
+		 */
+		public long reserve(int count) {
+			long first = Math.max(scheduled, games);
+			scheduled = first + count;
+			return first;
+		}
+		
+		public double variance() {
+			return games > 1 ? m2/(games - 1) : 0;
+		}
+		
+		/**
+		 * The expected score of a game capped at maxMoves, the mean of the games as add() counts them.
+		 * variance() is of the same values, so racing builds its interval around this.
+		 */
+		public double fitness() {
+			return mean;
+		}
+	}
+	
+	private static final class Key {
+		private final long[] q;
+		private final int hash;
+		
+		Key(long[] q) {
+			this.q = q;
+			hash = Arrays.hashCode(q);
+		}
+		
+		public int hashCode() {
+			return hash;
+		}
+		
+		public boolean equals(Object o) {
+			return o instanceof Key && Arrays.equals(q, ((Key) o).q);
+		}
+	}
+	
+	public final FeatureSet features;
+	public final int capacity;
+	public final double quantum;
+	private final LinkedHashMap<Key, Entry> entries;
+	
+	public FitnessCache(FeatureSet features, int capacity, double quantum) {
+		this.features = features;
+		this.capacity = capacity;
+		this.quantum = quantum;
+		entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				return size() > FitnessCache.this.capacity;
+			}
+		};
+	}
+	
+	private Key key(double[] weights) {
+		long[] q = new long[weights.length];
+		for (int i = 0; i < weights.length; i++) {
+			q[i] = Math.round(weights[i]/quantum);
+		}
+		return new Key(q);
+	}
+	
+	/**
+	 * The entry for these weights, added empty if there is none yet
+	 */
+	public Entry entry(double[] weights) {
+		return entries.computeIfAbsent(key(weights), k -> new Entry());
+	}
+	
+	/**
+	 * The entry for these weights, or null if they have not been played
+	 */
+	public Entry get(double[] weights) {
+		return entries.get(key(weights));
+	}
+	
+	public int size() {
+		return entries.size();
+	}
+	
+	/**
+	 * Writes the cache to a temporary file next to file and then moves it over file
+	 */
+	public void save(Path file) throws IOException {
+		AtomicFiles.write(file, out -> {
+			out.writeInt(MAGIC);
+			out.writeUTF(features.toString());
+			out.writeDouble(quantum);
+			out.writeInt(entries.size());
+			// Least recently used first, so that loading puts them back in the same order
+			for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+				long[] q = e.getKey().q;
+				out.writeInt(q.length);
+				for (long x : q) {
+					out.writeLong(x);
+				}
+				Entry v = e.getValue();
+				out.writeLong(v.games);
+				out.writeDouble(v.mean);
+				out.writeDouble(v.m2);
+				out.writeLong(v.rows);
+				out.writeLong(v.pieces);
+				out.writeLong(v.deaths);
+			}
+		});
+	}
+	
+	/**
+	 * Reads a cache written by save, keeping the features and quantum it was built with
+	 */
+	public static FitnessCache load(Path file, int capacity) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException(file + " is not a fitness cache");
+			}
+			FeatureSet features;
+			try {
+				features = FeatureSet.parse(in.readUTF());
+			} catch (IllegalArgumentException e) {
+				throw new IOException(file + ": " + e.getMessage());
+			}
+			FitnessCache cache = new FitnessCache(features, capacity, in.readDouble());
+			int size = in.readInt();
+			for (int i = 0; i < size; i++) {
+				long[] q = new long[in.readInt()];
+				for (int j = 0; j < q.length; j++) {
+					q[j] = in.readLong();
+				}
+				Entry v = new Entry();
+				v.games = in.readLong();
+				v.mean = in.readDouble();
+				v.m2 = in.readDouble();
+				v.rows = in.readLong();
+				v.pieces = in.readLong();
+				v.deaths = in.readLong();
+				cache.entries.put(new Key(q), v);
+			}
+			return cache;
+		}
+	}
+}
@@ -0,0 +1,232 @@
+package tetris;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plays the games that decide the fitness of weight vectors on one pool of threads shared by the whole run
+ * With commonRandomNumbers on, game i of every vector is played on the same piece sequence, so fitness
+ * differences come from the weights rather than from luckier pieces.
+ * With racing on, games are played in rounds and a vector stops as soon as the upper end of its
+ * confidence interval falls below the threshold it has to reach to be selected, so weak vectors cost a
+ * few games instead of numGames; vectors whose interval still straddles the threshold after numGames
+ * keep playing up to maxGames.
+ * A game is cut off after maxMoves moves or timeBudgetMillis, whichever comes first; one cut off by the
+ * clock is scored as if it had reached maxMoves at the rate it was clearing rows (see FitnessCache.Entry).
+ * Several threads (one per island) may evaluate batches at once; cache entries are only touched
+ * while holding the cache's lock.
+ */
+class FitnessEvaluator {
+	public int numGames = 10;
+	// Features the players score boards by, one weight of each vector per feature
+	public FeatureSet features = FeatureSet.CLASSIC;
+	public int threads;
+	public boolean commonRandomNumbers = true;
+	// Results of earlier vectors, null to play every vector afresh
+	public FitnessCache cache;
+	// Games added to a cached vector each time it turns up again
+	public int extraGames = 2;
+	public LongAdder cacheHits = new LongAdder();
+	public boolean racing = true;
+	// Games before a vector can be stopped, and games per round after that
+	public int minGames = 3;
+	public int roundGames = 2;
+	public int maxGames = 20;
+	// Half-width of the confidence interval in standard errors
+	public double confidence = 2.0;
+	public long maxMoves = 250000;
+	public long timeBudgetMillis = 120000;
+	public LongAdder gamesCutOff = new LongAdder();
+	public LongAdder gamesPlayed = new LongAdder();
+	public LongAdder stoppedEarly = new LongAdder();
+	private long seed;
+	private ExecutorService pool;
+	
+	public FitnessEvaluator(int threads, long seed) {
+		this.threads = threads;
+		this.seed = seed;
+		// Daemon threads so that the pool never keeps the JVM alive on its own
+		pool = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, "game-runner");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+	
+	/**
+	 * Plays numGames games for every vector in the batch, all at once on the pool,
+	 * and sets the fitness of each vector to its average score
+	 */
+	public void evaluate(List<WeightVector> batch) {
+		evaluate(batch, Double.NEGATIVE_INFINITY);
+	}
+	
+	/**
+	 * Plays games for every vector in the batch, all at once on the pool, round by round until every vector
+	 * has either played enough games or been shown by racing not to reach threshold,
+	 * and sets the fitness of each vector to its average score
+	 * A vector already in the cache starts with extraGames more games (or up to the first round), which are
+	 * added to its entry; vectors of the batch that share an entry play their games once.
+	 */
+	public void evaluate(List<WeightVector> batch, double threshold) {
+		if (!racing) {
+			threshold = Double.NEGATIVE_INFINITY;
+		}
+		// Nothing to race against, so every new vector plays all its games in one round
+		int firstRound = threshold == Double.NEGATIVE_INFINITY ? numGames : minGames;
+		FitnessCache.Entry[] entries = new FitnessCache.Entry[batch.size()];
+		Map<FitnessCache.Entry, Integer> jobOf = new IdentityHashMap<FitnessCache.Entry, Integer>();
+		List<FitnessCache.Entry> jobs = new ArrayList<FitnessCache.Entry>();
+		List<PlayerSkeleton> players = new ArrayList<PlayerSkeleton>();
+		Object lock = cache != null ? cache : jobs;
+		int[] round;
+		
+		synchronized (lock) {
+			for (int i = 0; i < batch.size(); i++) {
+				double[] weights = batch.get(i).weights;
+				entries[i] = cache != null ? cache.entry(weights) : new FitnessCache.Entry();
+				if (entries[i].games > 0 || jobOf.containsKey(entries[i])) {
+					cacheHits.increment();
+				}
+				if (!jobOf.containsKey(entries[i])) {
+					jobOf.put(entries[i], jobs.size());
+					jobs.add(entries[i]);
+					players.add(player(weights));
+				}
+			}
+			
+			round = new int[jobs.size()];
+			for (int job = 0; job < jobs.size(); job++) {
+				long played = jobs.get(job).games;
+				round[job] = played == 0 ? firstRound : (int) Math.max(extraGames, firstRound - played);
+			}
+		}
+		
+		while (true) {
+			int totalGames = 0;
+			for (int games : round) {
+				totalGames += games;
+			}
+			if (totalGames == 0) {
+				break;
+			}
+			
+			CountDownLatch completionSignal = new CountDownLatch(totalGames);
+			State[][] results = new State[jobs.size()][];
+			for (int job = 0; job < jobs.size(); job++) {
+				results[job] = new State[round[job]];
+				// New games for an entry continue its game numbers, so they are played on new sequences
+				long first;
+				synchronized (lock) {
+					first = jobs.get(job).reserve(round[job]);
+				}
+				for (int g = 0; g < round[job]; g++) {
+					pool.execute(new GameRunner(completionSignal, results[job], g, players.get(job),
+							pieceSource((int) first + g), maxMoves, timeBudgetMillis));
+				}
+			}
+			
+			try {
+				// Wait for all games of the round to complete.
+				completionSignal.await();
+			} catch (InterruptedException e) {
+				System.out.println("Thread Interrupted");
+				Thread.currentThread().interrupt();
+				break;
+			}
+			
+			gamesPlayed.add(totalGames);
+			synchronized (lock) {
+				for (int job = 0; job < jobs.size(); job++) {
+					int added = 0;
+					for (State game : results[job]) {
+						// A game that failed has nothing to add
+						if (game == null) {
+							continue;
+						}
+						jobs.get(job).add(game.getRowsCleared(), game.getTurnNumber(), game.hasLost(), maxMoves);
+						added++;
+						if (!game.hasLost()) {
+							gamesCutOff.increment();
+						}
+					}
+					// When every game of a round failed the next one would only fail again, so the entry keeps
+					// the games it has
+					round[job] = round[job] == 0 || added == 0 ? 0 : nextRound(jobs.get(job), threshold);
+				}
+			}
+		}
+		
+		synchronized (lock) {
+			for (int i = 0; i < batch.size(); i++) {
+				batch.get(i).fitness = entries[i].fitness();
+			}
+		}
+	}
+	
+	/**
+	 * The number of games an entry plays in the next round, 0 once it is settled:
+	 * 	None if even the upper end of its confidence interval is below threshold
+	 * 	Up to numGames otherwise
+	 * 	Up to maxGames while its confidence interval still contains threshold
+	 * 	None if it has no games to build an interval from
+	 */
+	private int nextRound(FitnessCache.Entry e, double threshold) {
+		if (e.games == 0) {
+			return 0;
+		}
+		double halfWidth = confidence*Math.sqrt(e.variance()/e.games);
+		double fitness = e.fitness();
+		if (Double.isNaN(halfWidth) || Double.isNaN(fitness)) {
+			return 0;
+		}
+		if (fitness + halfWidth < threshold) {
+			if (e.games < numGames) {
+				stoppedEarly.increment();
+			}
+			return 0;
+		}
+		if (e.games < numGames) {
+			return (int) Math.min(roundGames, numGames - e.games);
+		}
+		if (e.games < maxGames && fitness - halfWidth < threshold) {
+			return (int) Math.min(roundGames, maxGames - e.games);
+		}
+		return 0;
+	}
+	
+	// The player whose games decide the fitness of these weights
+	protected PlayerSkeleton player(double[] weights) {
+		SearchConfig search = new SearchConfig();
+		search.features = features;
+		return new PlayerSkeleton(weights, search);
+	}
+	
+	// Pieces for game number i of a vector
+	public PieceSource pieceSource(int i) {
+		return commonRandomNumbers ? new RandomPieceSource(seed + i) : new RandomPieceSource();
+	}
+	
+	/**
+	 * Prints the games played so far, for the whole run
+	 */
+	public void profile() {
+		if (cache != null) {
+			synchronized (cache) {
+				System.out.println("Fitness cache: " + cacheHits.sum() + " hits, " + cache.size() + " vectors");
+			}
+		}
+		System.out.println("Games played: " + gamesPlayed.sum() + ", cut off: " + gamesCutOff.sum()
+				+ ", vectors stopped early: " + stoppedEarly.sum());
+	}
+	
+	public void shutdown() {
+		pool.shutdownNow();
+	}
+}
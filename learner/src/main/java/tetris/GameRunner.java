@@ -0,0 +1,35 @@
+package tetris;
+
+import java.util.concurrent.CountDownLatch;
+
+class GameRunner implements Runnable {
+	// Shared by every game of the same vector, one slot per game
+	private State[] results;
+	private int game;
+	private PlayerSkeleton player;
+	private PieceSource pieces;
+	private long maxMoves;
+	private long timeBudgetMillis;
+	private CountDownLatch doneSignal;
+	
+	public GameRunner(CountDownLatch doneSignal, State[] results, int game, PlayerSkeleton player, PieceSource pieces,
+			long maxMoves, long timeBudgetMillis) {
+		this.doneSignal = doneSignal;
+		this.results = results;
+		this.game = game;
+		this.player = player;
+		this.pieces = pieces;
+		this.maxMoves = maxMoves;
+		this.timeBudgetMillis = timeBudgetMillis;
+	}
+	
+	// Plays the game and stores its final state in its slot; the latch makes it visible to whoever awaits it.
+	// Always counts down, so a failed game cannot leave the batch waiting forever.
+	public void run() {
+		try {
+			results[game] = player.playGame(pieces, maxMoves, timeBudgetMillis);
+		} finally {
+			doneSignal.countDown();
+		}
+	}
+}
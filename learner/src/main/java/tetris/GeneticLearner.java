@@ -0,0 +1,305 @@
+package tetris;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This is the code for our Genetic Algorithm. This file is not necessary to run PlayerSkeleton.java.
+ * The population is split into islands (see IslandConfig) that each evolve on a worker thread of their own
+ * and send their fittest vectors to other islands every few generations. All islands share one
+ * FitnessEvaluator, and so its pool of game threads and its cache.
+ * The islands are checkpointed to results/population.ckpt after every generation, and a run started with an
+ * existing checkpoint resumes from it. While the initial islands are built they are checkpointed, along with the
+ * fitness cache, after every batch of vectors, so a run stopped then only replays the batches it had not finished.
+ * With mode=steady each island evolves steady-state instead (see SteadyStatePipeline): offspring are
+ * evaluated concurrently and replace the least fit vectors as their results arrive, and a "generation"
+ * is just as many offspring as a generational one, after which the islands migrate and are checkpointed.
+ * Game results are cached by weight vector and saved next to the checkpoint as fitness.cache, which
+ * later runs load so that vectors they have in common with earlier runs are not played from scratch.
+ *
+ * Usage: GeneticLearner [key=value ...] with keys
+ * 	size (of the whole population), islands, interval (generations between migrations), migrants, topology (ring, complete or random),
+ * 	first and local (the islands this process runs when several processes share a run),
+ * 	migrations (directory through which processes exchange migrants), seed, checkpoint,
+ * 	mode (generational or steady), inflight (offspring evaluated at once per island in steady mode)
+ * 	and features (the FeatureSet the weights are for, e.g. features=lines,holes,landing,eroded)
+ */
+public class GeneticLearner {
+	
+	public static void main(String[] args) {
+		int initialSize = 1000;
+		double cutoff = 0.3;
+		int numGenerations = 0;
+		int cutoffGenerations = Integer.MAX_VALUE;
+		int cacheCapacity = 100000;
+		double cacheQuantum = 1e-3;
+		IslandConfig config = new IslandConfig();
+		Path checkpointArg = null;
+		Long seedArg = null;
+		FeatureSet featuresArg = null;
+		boolean steadyState = false;
+		int maxInFlight = 0;
+		
+		try {
+			for (String arg : args) {
+				int eq = arg.indexOf('=');
+				String key = eq < 0 ? arg : arg.substring(0, eq);
+				String value = arg.substring(eq + 1);
+				switch (key) {
+				case "size": initialSize = Integer.parseInt(value); break;
+				case "islands": config.islands = Integer.parseInt(value); break;
+				case "interval": config.migrationInterval = Integer.parseInt(value); break;
+				case "migrants": config.migrants = Integer.parseInt(value); break;
+				case "topology": config.topology = IslandConfig.Topology.valueOf(value.toUpperCase()); break;
+				case "first": config.firstIsland = Integer.parseInt(value); break;
+				case "local": config.localIslands = Integer.parseInt(value); break;
+				case "migrations": config.migration = new FileMigration(Paths.get(value)); break;
+				case "seed": seedArg = Long.parseLong(value); break;
+				case "checkpoint": checkpointArg = Paths.get(value); break;
+				case "mode":
+					if (!value.equals("steady") && !value.equals("generational")) {
+						throw new IllegalArgumentException("unknown mode " + value);
+					}
+					steadyState = value.equals("steady");
+					break;
+				case "inflight": maxInFlight = Integer.parseInt(value); break;
+				case "features": featuresArg = FeatureSet.parse(value); break;
+				default: throw new IllegalArgumentException("unknown option " + arg);
+				}
+			}
+			// Before anything is started, so that bad settings leave no thread pool behind
+			config.validate();
+		} catch (IOException | IllegalArgumentException e) {
+			System.out.println("error: " + e);
+			return;
+		}
+		// A process running only some of the islands keeps its files apart from the other processes'
+		boolean allLocal = config.localIslands == config.islands;
+		Path checkpointFile = checkpointArg != null ? checkpointArg
+				: Paths.get(allLocal ? "results/population.ckpt" : "results/population-" + config.firstIsland + ".ckpt");
+		Path cacheFile = checkpointFile.resolveSibling(allLocal ? "fitness.cache" : "fitness-" + config.firstIsland + ".cache");
+		
+		Checkpoint resumed = null;
+		if (Files.exists(checkpointFile)) {
+			try {
+				resumed = Checkpoint.load(checkpointFile);
+			} catch (IOException e) {
+				System.out.println("error: could not read checkpoint: " + e);
+				return;
+			}
+			try {
+				resumed.checkResumable(config.firstIsland, config.localIslands, featuresArg);
+			} catch (IllegalArgumentException e) {
+				System.out.println("error: " + checkpointFile + " " + e.getMessage());
+				return;
+			}
+		}
+		FeatureSet features = resumed != null ? resumed.features : featuresArg != null ? featuresArg : FeatureSet.CLASSIC;
+		
+		StopWatch sw = new StopWatch();
+		long seed = resumed != null ? resumed.seed : seedArg != null ? seedArg : System.currentTimeMillis();
+		System.out.println("Piece sequence seed: " + seed);
+		System.out.println("Features: " + features);
+		FitnessEvaluator evaluator = new FitnessEvaluator(Runtime.getRuntime().availableProcessors(), seed);
+		evaluator.features = features;
+		evaluator.cache = new FitnessCache(features, cacheCapacity, cacheQuantum);
+		if (Files.exists(cacheFile)) {
+			try {
+				FitnessCache loaded = FitnessCache.load(cacheFile, cacheCapacity);
+				if (loaded.features.equals(features)) {
+					evaluator.cache = loaded;
+					System.out.println("Loaded " + evaluator.cache.size() + " cached vectors from " + cacheFile);
+				} else {
+					System.out.println("warning: " + cacheFile + " holds vectors for the features " + loaded.features + ", starting with an empty cache");
+				}
+			} catch (IOException e) {
+				System.out.println("warning: could not read fitness cache, starting with an empty one: " + e);
+			}
+		}
+		int islandSize = Math.max(2, initialSize / config.islands);
+		// Enough offspring per batch, across the islands, to keep every thread busy with their first round of games
+		int batchSize = Math.max(1, evaluator.threads / (evaluator.minGames*config.localIslands));
+		ExecutorService workers = Executors.newFixedThreadPool(config.localIslands, r -> {
+			Thread t = new Thread(r, "island-worker");
+			t.setDaemon(true);
+			return t;
+		});
+		// Each offspring in flight holds a thread here while its games run on the evaluator's pool
+		ExecutorService evaluators = Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, "offspring-evaluator");
+			t.setDaemon(true);
+			return t;
+		});
+		if (maxInFlight <= 0) {
+			// Twice what keeps every game thread busy with first rounds, so that a new offspring is ready
+			// whenever one finishes
+			maxInFlight = Math.max(2, 2*evaluator.threads / (evaluator.minGames*config.localIslands));
+		}
+		int inFlight = maxInFlight;
+		
+		try {
+			sw.start();
+			List<Population> islands = new ArrayList<Population>();
+			if (resumed != null && !resumed.isPartial()) {
+				numGenerations = resumed.generation;
+				for (List<WeightVector> vectors : resumed.islands) {
+					islands.add(new Population(resumed.populationSize, vectors, evaluator, null));
+				}
+				System.out.println("Resumed from " + checkpointFile + " after generation " + numGenerations);
+			} else {
+				if (resumed != null) {
+					System.out.println("Resuming the initial islands from " + checkpointFile);
+				}
+				islands = buildIslands(resumed != null ? resumed.populationSize : islandSize, resumed, evaluator, seed,
+						config.firstIsland, config.localIslands, workers, checkpointFile, cacheFile);
+				System.out.println("------------------------------------------------------");
+				System.out.println("PROFILE: Population created in " + sw.getTime() + "ms");
+				System.out.println("------------------------------------------------------");
+				saveCheckpoint(new Checkpoint(seed, numGenerations, config.firstIsland, islands), checkpointFile, evaluator.cache, cacheFile);
+			}
+			int offspringPerGeneration = (int) Math.ceil(islands.get(0).originalSize*cutoff);
+			List<SteadyStatePipeline> pipelines = new ArrayList<SteadyStatePipeline>();
+			for (Population p : islands) {
+				pipelines.add(new SteadyStatePipeline(p, evaluator, evaluators, inFlight));
+			}
+			boolean steady = steadyState;
+			sw.start();
+			// Run this for a fixed number (cutoffGenerations) of generations
+			while(numGenerations < cutoffGenerations) {
+				int generation = numGenerations + 1;
+				
+				// A single generation producing offspring on every island at once
+				List<Callable<Void>> evolution = new ArrayList<Callable<Void>>();
+				for (int i = 0; i < islands.size(); i++) {
+					Population p = islands.get(i);
+					SteadyStatePipeline pipeline = pipelines.get(i);
+					p.random = Checkpoint.generationRandom(seed, config.firstIsland + i, generation);
+					evolution.add(() -> {
+						if (steady) {
+							pipeline.run(offspringPerGeneration);
+							p.offspringProduced = 0;
+							return null;
+						}
+						while(p.offspringProduced < offspringPerGeneration) {
+							p.crossover(Math.min(batchSize, offspringPerGeneration - p.offspringProduced));
+						}
+						// Once this generation produces a certain percentage of offspring, purge the population
+						p.purge();
+						return null;
+					});
+				}
+				for (Future<Void> f : workers.invokeAll(evolution)) {
+					f.get();
+				}
+				numGenerations++;
+				
+				if (config.migrationInterval > 0 && numGenerations % config.migrationInterval == 0) {
+					migrate(islands, config);
+				}
+
+				System.out.println("---------------GENERATION PROFILE------------------");
+				System.out.println("Generation " + numGenerations + ":");
+				for (int i = 0; i < islands.size(); i++) {
+					System.out.print("Island " + (config.firstIsland + i) + ": ");
+					islands.get(i).getFittest();
+				}
+				for (Population p : islands) {
+					p.profile();
+				}
+				evaluator.profile();
+				System.out.println("Total time elapsed: " + sw.getTime());
+				System.out.println("---------------------------------------------------");
+				
+				saveCheckpoint(new Checkpoint(seed, numGenerations, config.firstIsland, islands), checkpointFile, evaluator.cache, cacheFile);
+			}
+			
+			
+			
+		} catch (Exception e) {
+			System.out.println("error: " + e);
+		} finally {
+			workers.shutdownNow();
+			evaluators.shutdownNow();
+			evaluator.shutdown();
+		}
+		
+
+	}
+	
+	/**
+	 * Builds the initial islands on the workers, one thread each, carrying on from the vectors of partial (a
+	 * checkpoint taken while they were being built, or null). They are checkpointed along with the cache after
+	 * every batch of vectors, so that a run stopped while building them carries on from those vectors instead of
+	 * playing their games again.
+	 */
+	static List<Population> buildIslands(int populationSize, Checkpoint partial, FitnessEvaluator evaluator, long seed,
+			int firstIsland, int localIslands, ExecutorService workers, Path checkpointFile, Path cacheFile)
+			throws InterruptedException, ExecutionException {
+		// The vectors each island has so far
+		List<List<WeightVector>> built = new ArrayList<List<WeightVector>>();
+		for (int i = 0; i < localIslands; i++) {
+			built.add(partial != null ? partial.islands.get(i) : new ArrayList<WeightVector>());
+		}
+		List<Callable<Population>> creation = new ArrayList<Callable<Population>>();
+		for (int i = 0; i < localIslands; i++) {
+			int index = i;
+			int island = firstIsland + i;
+			creation.add(() -> new Population(populationSize, built.get(index), evaluator, Checkpoint.generationRandom(seed, island, 0), island,
+					vectors -> {
+						synchronized (built) {
+							built.set(index, vectors);
+							saveCheckpoint(new Checkpoint(seed, evaluator.features, populationSize, firstIsland, built), checkpointFile,
+									evaluator.cache, cacheFile);
+						}
+					}));
+		}
+		List<Population> islands = new ArrayList<Population>();
+		for (Future<Population> f : workers.invokeAll(creation)) {
+			islands.add(f.get());
+		}
+		return islands;
+	}
+	
+	/**
+	 * Every local island sends copies of its fittest vectors to its targets, then takes in the migrants that
+	 * have reached it, which replace its least fit vectors if they are fitter
+	 */
+	private static void migrate(List<Population> islands, IslandConfig config) throws IOException {
+		for (int i = 0; i < islands.size(); i++) {
+			Population p = islands.get(i);
+			int island = config.firstIsland + i;
+			List<WeightVector> migrants = p.fittest(config.migrants);
+			for (int target : config.topology.targets(island, config.islands, p.random)) {
+				config.migration.send(island, target, migrants);
+			}
+		}
+		for (int i = 0; i < islands.size(); i++) {
+			Population p = islands.get(i);
+			List<WeightVector> arrivals = config.migration.receive(config.firstIsland + i);
+			p.vectors.addAll(arrivals);
+			p.purge();
+		}
+	}
+	
+	// A checkpoint that cannot be written costs the run nothing but its restartability, so it only warns
+	private static void saveCheckpoint(Checkpoint c, Path file, FitnessCache cache, Path cacheFile) {
+		try {
+			c.save(file);
+			synchronized (cache) {
+				cache.save(cacheFile);
+			}
+		} catch (IOException e) {
+			System.out.println("warning: could not write checkpoint: " + e);
+		}
+	}
+
+}
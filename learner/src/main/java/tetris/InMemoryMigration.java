@@ -0,0 +1,31 @@
+package tetris;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Migration between islands of the same process
+ */
+class InMemoryMigration implements Migration {
+	private ConcurrentHashMap<Integer, ConcurrentLinkedQueue<WeightVector>> arrivals =
+			new ConcurrentHashMap<Integer, ConcurrentLinkedQueue<WeightVector>>();
+	
+	public void send(int from, int to, List<WeightVector> migrants) {
+		ConcurrentLinkedQueue<WeightVector> queue = arrivals.computeIfAbsent(to, i -> new ConcurrentLinkedQueue<WeightVector>());
+		for (WeightVector v : migrants) {
+			queue.add(new WeightVector(v.weights, v.fitness));
+		}
+	}
+	
+	public List<WeightVector> receive(int island) {
+		List<WeightVector> received = new ArrayList<WeightVector>();
+		ConcurrentLinkedQueue<WeightVector> queue = arrivals.get(island);
+		WeightVector v;
+		while (queue != null && (v = queue.poll()) != null) {
+			received.add(v);
+		}
+		return received;
+	}
+}
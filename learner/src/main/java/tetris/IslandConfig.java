@@ -0,0 +1,81 @@
+package tetris;
+
+import java.util.Random;
+
+/**
+ * Settings for how GeneticLearner splits its population into islands that evolve independently
+ * and exchange their fittest vectors every few generations
+ */
+class IslandConfig {
+	/**
+	 * Which islands an island sends its migrants to
+	 */
+	public enum Topology {
+		// The next island, wrapping around
+		RING,
+		// Every other island
+		COMPLETE,
+		// One other island picked at random each migration
+		RANDOM;
+		
+		public int[] targets(int island, int islands, Random random) {
+			if (islands < 2) {
+				return new int[0];
+			}
+			switch (this) {
+			case RING:
+				return new int[] {(island + 1) % islands};
+			case COMPLETE:
+				int[] all = new int[islands - 1];
+				for (int i = 0, t = 0; i < islands; i++) {
+					if (i != island) {
+						all[t++] = i;
+					}
+				}
+				return all;
+			default:
+				int other = random.nextInt(islands - 1);
+				return new int[] {other < island ? other : other + 1};
+			}
+		}
+	}
+	
+	// Islands in the whole run, each with its share of the population
+	public int islands = 4;
+	// Generations between migrations. 0 never migrates.
+	public int migrationInterval = 5;
+	// Fittest vectors each island sends to each of its targets
+	public int migrants = 2;
+	public Topology topology = Topology.RING;
+	// The islands this process evolves, firstIsland onwards; the rest are run by other processes
+	public int firstIsland = 0;
+	// 0 runs every island from firstIsland on.
+	public int localIslands = 0;
+	// How migrants reach other islands. Only an in-memory one is needed when every island is local.
+	public Migration migration = new InMemoryMigration();
+	
+	/**
+	 * Checks the settings and fills in localIslands when it is 0
+	 * @throws IllegalArgumentException naming the first setting out of range
+	 */
+	public void validate() {
+		if (islands < 1) {
+			throw new IllegalArgumentException("islands must be at least 1, not " + islands);
+		}
+		if (firstIsland < 0 || firstIsland >= islands) {
+			throw new IllegalArgumentException("first must be from 0 to " + (islands - 1) + ", not " + firstIsland);
+		}
+		if (localIslands == 0) {
+			localIslands = islands - firstIsland;
+		}
+		if (localIslands < 1 || localIslands > islands - firstIsland) {
+			throw new IllegalArgumentException("local must be from 1 to " + (islands - firstIsland) + ", not " + localIslands);
+		}
+		if (migrationInterval < 0) {
+			throw new IllegalArgumentException("interval must be at least 0, not " + migrationInterval);
+		}
+		if (migrants < 0) {
+			throw new IllegalArgumentException("migrants must be at least 0, not " + migrants);
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package tetris;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Carries migrants between islands, which may be run by different processes
+ */
+interface Migration {
+	// Sends copies of the given vectors from one island to another
+	void send(int from, int to, List<WeightVector> migrants) throws IOException;
+	
+	// Takes every migrant that has reached the island so far, without waiting for more
+	List<WeightVector> receive(int island) throws IOException;
+}
@@ -0,0 +1,305 @@
+package tetris;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+class Population {
+	public int originalSize;
+	public int offspringProduced;
+	// In no particular order; sampling and purging rearrange it
+	public ArrayList<WeightVector> vectors;
+	public FitnessEvaluator evaluator;
+	// Every random choice (new vectors, sampling, mutation) is drawn from here so that a run can be replayed
+	public Random random;
+	
+	// Used to profile each generation
+	public StopWatch purgeClock;
+	public StopWatch sampleClock;
+	public StopWatch crossClock;
+	
+	/**
+	 * Constructs the population with given population size
+	 * 	- Creates the given number of vectors and calculates their fitness, a tenth of the population at a time
+	 *  - Adds the vectors into the population
+	 * Islands are created side by side, so each line of progress is printed whole and names its island.
+	 */
+	public Population(int populationSize, FitnessEvaluator evaluator, Random random, int island) {
+		this(populationSize, new ArrayList<WeightVector>(), evaluator, random, island, null);
+	}
+	
+	/**
+	 * Constructs the population with given population size, carrying on from the vectors of a build that was cut
+	 * short (see Checkpoint.isPartial)
+	 * 	- Draws the vectors already built from random again and drops them, so the rest are the ones an
+	 * 	  uninterrupted build with the same random makes
+	 * 	- Creates the missing vectors and calculates their fitness, a tenth of the population at a time
+	 * 	- Hands every vector built so far to progress after each batch, unless it is null, so they can be saved
+	 */
+	public Population(int populationSize, List<WeightVector> built, FitnessEvaluator evaluator, Random random, int island,
+			Consumer<List<WeightVector>> progress) {
+		originalSize = populationSize;
+		this.evaluator = evaluator;
+		this.random = random;
+		int checkpointSize = 10;
+		int checkpoint = Math.max(1, populationSize/checkpointSize);
+		vectors = new ArrayList<WeightVector>(populationSize);
+		vectors.addAll(built);
+		for (int i = 0; i < built.size(); i++) {
+			new WeightVector(evaluator.features.size(), random);
+		}
+		String label = "Island " + island + ": ";
+		System.out.println(label + (built.isEmpty() ? "initializing population..." : "resuming with " + built.size() + " vectors..."));
+		while (vectors.size() < populationSize) {
+			List<WeightVector> batch = new ArrayList<WeightVector>();
+			while (batch.size() < checkpoint && vectors.size() + batch.size() < populationSize) {
+				batch.add(new WeightVector(evaluator.features.size(), random));
+			}
+			evaluator.evaluate(batch);
+			vectors.addAll(batch);
+			WeightVector best = best();
+			System.out.println(label + "..." + (vectors.size()*100/populationSize) + "%, current best: "
+					+ Arrays.toString(best.weights) + ", fitness: " + best.fitness);
+			if (progress != null) {
+				progress.accept(new ArrayList<WeightVector>(vectors));
+			}
+		}
+		
+		offspringProduced = 0;
+		System.out.println(label + "initial population created.");
+		
+		purgeClock = new StopWatch();
+		sampleClock = new StopWatch();
+		crossClock = new StopWatch();
+	}
+	
+	/**
+	 * Constructs the population from vectors that have already been evaluated, e.g. ones read back from a Checkpoint
+	 */
+	public Population(int populationSize, Collection<WeightVector> evaluated, FitnessEvaluator evaluator, Random random) {
+		originalSize = populationSize;
+		this.evaluator = evaluator;
+		this.random = random;
+		vectors = new ArrayList<WeightVector>(evaluated);
+		offspringProduced = 0;
+		
+		purgeClock = new StopWatch();
+		sampleClock = new StopWatch();
+		crossClock = new StopWatch();
+	}
+
+	/**
+	 * Produces the given number of offspring (see breed)
+	 * The offspring are evaluated together as one batch and then added into the population
+	 */
+	public void crossover(int count) {
+		List<WeightVector> offspring = new ArrayList<WeightVector>();
+		for (int c = 0; c < count; c++) {
+			WeightVector child = breed();
+			if (child == null) {
+				return;
+			}
+			offspring.add(child);
+		}
+
+		crossClock.start();
+		evaluator.evaluate(offspring, selectionThreshold());
+		crossClock.clock();
+		for (WeightVector v : offspring) {
+			addOffspring(v);
+		}
+	}
+	
+	/**
+	 * Returns a new vector, not yet evaluated, made by:
+	 * 	Randomly sampling 10% of the population
+	 * 	Choosing the two vectors with the highest fitness
+	 * 	Crossing the two most fit vectors by the formula:
+	 * 		v1*fitness(v1) + v2*fitness(v2)
+	 * or null if the population is too small to have two parents
+	 */
+	public WeightVector breed() {
+		// Takes the 2 fittest vectors of the sample
+		WeightVector[] parents = samplePopulation();
+		if (parents == null) {
+			return null;
+		}
+		WeightVector a = parents[0];
+		WeightVector b = parents[1];
+		
+		double[] newWeights = new double[a.weights.length];
+		for (int i = 0; i < newWeights.length; i++) {
+			newWeights[i] = a.weights[i]*a.fitness + b.weights[i]*b.fitness;
+		}
+		return new WeightVector(newWeights, random);
+	}
+	
+	/**
+	 * Adds a new vector to the population
+	 * Increments the number of offspring produced
+	 */
+	public void addOffspring(WeightVector v) {
+		vectors.add(v);
+		offspringProduced += 1;
+	}
+	
+	/**
+	 * Puts an evaluated vector in place of the least fit one if it is fitter, keeping the population's size
+	 * Increments the number of offspring produced either way
+	 */
+	public void replaceWorst(WeightVector v) {
+		int worst = 0;
+		for (int i = 1; i < vectors.size(); i++) {
+			if (vectors.get(i).fitness < vectors.get(worst).fitness) {
+				worst = i;
+			}
+		}
+		if (vectors.size() < originalSize) {
+			vectors.add(v);
+		} else if (v.fitness > vectors.get(worst).fitness) {
+			vectors.set(worst, v);
+		}
+		offspringProduced += 1;
+	}
+	
+	public static final double sampleProp = 0.1;
+	
+	/**
+	 * Samples 10% of the original population size at random (without replacement) and
+	 * returns the two fittest of the sample, fittest first, or null if there are fewer than two
+	 * The sample is drawn by swapping random vectors to the front of the list, a partial shuffle
+	 * costing only the sample size.
+	 */
+	public WeightVector[] samplePopulation() {
+		sampleClock.start();
+		int n = vectors.size();
+		// At least the two parents, however small the population
+		int sampleSize = Math.min(n, Math.max(2, (int) (originalSize*sampleProp)));
+		WeightVector first = null;
+		WeightVector second = null;
+		
+		for (int i = 0; i < sampleSize; i++) {
+			Collections.swap(vectors, i, i + random.nextInt(n - i));
+			WeightVector v = vectors.get(i);
+			if (first == null || v.fitness > first.fitness) {
+				second = first;
+				first = v;
+			} else if (second == null || v.fitness > second.fitness) {
+				second = v;
+			}
+		}
+		
+		sampleClock.clock();
+		return second == null ? null : new WeightVector[] {first, second};
+	}
+	
+	/**
+	 * The fitness an offspring needs to survive the next purge as the population stands:
+	 * that of the vector ranked originalSize, or negative infinity while there are no more than that
+	 */
+	public double selectionThreshold() {
+		if (vectors.size() < originalSize) {
+			return Double.NEGATIVE_INFINITY;
+		}
+		select(originalSize);
+		return vectors.get(originalSize - 1).fitness;
+	}
+	
+	/**
+	 * Returns the k fittest vectors (or all of them if there are fewer), in no particular order
+	 */
+	public List<WeightVector> fittest(int k) {
+		k = Math.min(k, vectors.size());
+		select(k);
+		return new ArrayList<WeightVector>(vectors.subList(0, k));
+	}
+	
+	/**
+	 * Rearranges the vectors so that the k fittest come first, the kth fittest at index k-1 (quickselect)
+	 */
+	private void select(int k) {
+		int lo = 0;
+		int hi = vectors.size() - 1;
+		while (lo < hi) {
+			// Three-way partition around a random pivot: fitter, as fit, less fit
+			// Equal fitness is common (early on most vectors score 0), so equal vectors are set aside in one pass
+			double pivot = vectors.get(lo + random.nextInt(hi - lo + 1)).fitness;
+			int lt = lo;
+			int gt = hi;
+			int i = lo;
+			while (i <= gt) {
+				double f = vectors.get(i).fitness;
+				if (f > pivot) {
+					Collections.swap(vectors, lt++, i++);
+				} else if (f < pivot) {
+					Collections.swap(vectors, i, gt--);
+				} else {
+					i++;
+				}
+			}
+			
+			if (k - 1 < lt) {
+				hi = lt - 1;
+			} else if (k - 1 > gt) {
+				lo = gt + 1;
+			} else {
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Gets the size of the population
+	 */
+	public int size() {
+		return vectors.size();
+	}
+	
+	/**
+	 * Keeps the (originalSize) fittest vectors, found by quickselect in time linear in the population size
+	 * Essentially removes the least fit vectors until we get back the original population size
+	 * Resets the number of offspring produced to 0.
+	 */
+	public void purge() {
+		purgeClock.start();
+		if (vectors.size() > originalSize) {
+			select(originalSize);
+			vectors.subList(originalSize, vectors.size()).clear();
+		}
+		offspringProduced = 0;
+		purgeClock.clock();
+	}
+	
+	/**
+	 * Returns the fitness of the best vector in this current population
+	 */
+	public double getFittest() {
+		WeightVector v = best();
+		System.out.print(Arrays.toString(v.weights) + ", fitness: " + v.fitness + "\n");
+		return v.fitness;
+	}
+	
+	// The fittest vector, leaving the order of the vectors alone
+	private WeightVector best() {
+		WeightVector v = vectors.get(0);
+		for (WeightVector w : vectors) {
+			if (w.fitness > v.fitness) {
+				v = w;
+			}
+		}
+		return v;
+	}
+	
+	/**
+	 * Prints the accumulated time of purge(), samplePopulation() and (crossing and creating a new vector)
+	 */
+	public void profile() {
+		System.out.println("Sample total elapsed: " + sampleClock.getElapsedTime() + "ms");
+		System.out.println("Purge total elapsed: " + purgeClock.getElapsedTime() + "ms");
+		System.out.println("Crossing total elapsed: " + crossClock.getElapsedTime() + "ms");
+	}
+}
@@ -0,0 +1,69 @@
+package tetris;
+
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Steady-state evolution of one population: offspring are bred one at a time and evaluated concurrently on
+ * a pool of evaluator threads, and each replaces the least fit vector as soon as its games are done,
+ * rather than a whole batch being bred, evaluated and added together.
+ * A semaphore bounds the offspring being evaluated at once, so breeding cannot run ahead of the games.
+ * Only the thread calling run touches the population: evaluated offspring come back through a queue.
+ */
+class SteadyStatePipeline {
+	private Population population;
+	private FitnessEvaluator evaluator;
+	private ExecutorService evaluators;
+	private Semaphore inFlight;
+	private LinkedBlockingQueue<WeightVector> evaluated = new LinkedBlockingQueue<WeightVector>();
+	
+	public SteadyStatePipeline(Population population, FitnessEvaluator evaluator, ExecutorService evaluators, int maxInFlight) {
+		this.population = population;
+		this.evaluator = evaluator;
+		this.evaluators = evaluators;
+		inFlight = new Semaphore(maxInFlight);
+	}
+	
+	/**
+	 * Breeds, evaluates and inserts the given number of offspring, returning once all of them are in
+	 * Each offspring races against the population's weakest vector as it stood when the offspring was bred.
+	 */
+	public void run(int count) throws InterruptedException {
+		int bred = 0;
+		int inserted = 0;
+		population.crossClock.start();
+		while (inserted < count) {
+			// Inserts whatever has finished before breeding from the population again
+			WeightVector done;
+			while ((done = evaluated.poll()) != null) {
+				population.replaceWorst(done);
+				inserted++;
+			}
+			
+			if (bred < count && inFlight.tryAcquire()) {
+				WeightVector child = population.breed();
+				if (child == null) {
+					inFlight.release();
+					break;
+				}
+				double threshold = population.selectionThreshold();
+				bred++;
+				evaluators.execute(() -> {
+					try {
+						evaluator.evaluate(Collections.singletonList(child), threshold);
+					} finally {
+						evaluated.add(child);
+						inFlight.release();
+					}
+				});
+			} else if (inserted < count) {
+				// Everything allowed is in flight (or bred), so wait for the next result
+				population.replaceWorst(evaluated.take());
+				inserted++;
+			}
+		}
+		population.crossClock.clock();
+	}
+}
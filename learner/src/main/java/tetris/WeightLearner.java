@@ -0,0 +1,133 @@
+package tetris;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Hill climbing over the weights: every step plays all 2*n neighbours of the current vector of n weights at once
+ * on a FitnessEvaluator, each on the same seeded piece sequences as the current vector, and moves to the best
+ * one if it beats the current vector by more than tolerance. Otherwise delta is halved, and the climb has
+ * converged once delta falls below minDelta.
+ * Usage: WeightLearner [games per vector] [seed] [features, e.g. lines,holes,landing,eroded]
+ */
+public class WeightLearner {
+
+	// One weight for each of these
+	public static FeatureSet features = FeatureSet.CLASSIC;
+	public static double delta = 0.1;
+	public static final double minDelta = 0.001;
+	// Relative improvement a neighbour needs for the climb to move to it
+	public static final double tolerance = 0.01;
+
+	// Returns an array of vectors where changes have been applied onto each weight
+	public static double[][] generateNewVectors(double[][] newVectors, double[] vector, boolean reduceDelta) {
+		double d = calculateDelta(reduceDelta);
+
+		int n = vector.length;
+		for (int i = 0; i < n*2; i++) {
+			double[] newVector = new double[n];
+			// Deduct instead of add
+			if (i == n) {
+				d *= -1;
+			}
+
+			for (int j = 0; j < n; j++) {
+				// Change a single weight
+				if (i % n == j) {
+					newVector[j] = vector[j] + d;
+				} else {
+					newVector[j] = vector[j];
+				}
+			}
+
+			newVectors[i] = newVector;
+		}
+
+		return newVectors;
+	}
+
+	// Reduce delta by half
+	public static double calculateDelta(boolean reduceDelta) {
+		if (reduceDelta) {
+			delta /= 2;
+		}
+		return delta;
+	}
+
+	// The climb has converged once the step is too small to matter
+	public static boolean converged() {
+		return delta < minDelta;
+	}
+
+
+	public static final double randomMin = -1;
+	public static final double randomMax = 1;
+
+	// Generates a random vector to run the checks
+	public static double[] generateRandomVector(Random rand) {
+		double[] vector = new double[features.size()];
+		for (int i = 0; i < vector.length; i++) {
+			vector[i] = randomMin + (randomMax-randomMin)*rand.nextDouble();
+		}
+		return vector;
+	}
+
+	public static void main(String[] args) {
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : System.currentTimeMillis();
+		System.out.println("Seed: " + seed);
+		if (args.length > 2) {
+			features = FeatureSet.parse(args[2]);
+		}
+		System.out.println("Features: " + features);
+		FitnessEvaluator evaluator = new FitnessEvaluator(Runtime.getRuntime().availableProcessors(), seed);
+		evaluator.features = features;
+		if (args.length > 0) {
+			evaluator.numGames = Integer.parseInt(args[0]);
+		}
+		// Every vector that is not stopped early plays exactly game 0 to numGames-1, so scores are compared
+		// on the same pieces
+		evaluator.maxGames = evaluator.numGames;
+
+		try {
+			boolean reduceDelta = false;
+			WeightVector current = new WeightVector(generateRandomVector(new Random(seed)), 0);
+			evaluator.evaluate(Arrays.asList(current));
+			double[][] newVectors = new double[features.size()*2][];
+
+			while(true) {
+				generateNewVectors(newVectors, current.weights, reduceDelta);
+				if (converged()) {
+					break;
+				}
+				List<WeightVector> neighbours = new ArrayList<WeightVector>();
+				for (double[] v : newVectors) {
+					neighbours.add(new WeightVector(v, 0));
+				}
+				// Neighbours that clearly cannot beat the current vector by tolerance stop early
+				double needed = current.fitness*(1 + tolerance);
+				evaluator.evaluate(neighbours, needed);
+
+				WeightVector best = neighbours.get(0);
+				for (WeightVector v : neighbours) {
+					System.out.println("Score: " + v.fitness);
+					if (v.fitness > best.fitness) {
+						best = v;
+					}
+				}
+
+				reduceDelta = best.fitness <= needed;
+				if (!reduceDelta) {
+					current = best;
+				}
+				System.out.println(Arrays.toString(current.weights) + ", fitness: " + current.fitness + ", delta: " + delta);
+			}
+			System.out.println("Converged at " + Arrays.toString(current.weights) + ", fitness: " + current.fitness);
+		} finally {
+			evaluator.shutdown();
+		}
+	}
+
+
+}
@@ -0,0 +1,78 @@
+package tetris;
+
+import java.util.Random;
+
+class WeightVector {
+	// One for each feature of the FeatureSet the vectors are learnt for
+	public double[] weights;
+	public double fitness;
+	
+	public static final double randomMin = -1;
+	public static final double randomMax = 1;
+
+	/**
+	 * Generates a vector of the given number of random weights drawn from rand
+	 * Its fitness is set when a FitnessEvaluator evaluates it
+	 */
+	public WeightVector(int heuristics, Random rand) {
+		weights = new double[heuristics];
+		for (int i = 0; i < heuristics; i++) {
+			weights[i] = randomMin + (randomMax-randomMin)*rand.nextDouble();
+		}
+		
+		normalize();
+	}
+	
+	/**
+	 * Generates a vector with the specified weights, possibly mutated using rand
+	 * Its fitness is set when a FitnessEvaluator evaluates it
+	 */
+	public WeightVector(double[] w, Random rand) {
+		weights = w.clone();
+
+		normalize();
+		mutate(rand);
+	}
+	
+	/**
+	 * Restores an already evaluated vector as it was, without normalizing or mutating it
+	 */
+	public WeightVector(double[] w, double fitness) {
+		weights = w.clone();
+		this.fitness = fitness;
+	}
+	
+	public static final double mutationThreshold = 0.2;
+	public static final double mutationChance = 0.05;
+
+	/**
+	 * This is called when the vector is initialized with weights
+	 * (after being crossed by two parents)
+	 * It has a 5% chance of mutating a random weight to up to +/- 0.2
+	 * The vector is then normalized
+	 */
+	public void mutate(Random rand) {
+		if (rand.nextDouble() <= mutationChance) {
+			int randomIndex = rand.nextInt(weights.length);
+			double mutationAmount = rand.nextDouble()*(mutationThreshold*2) - mutationThreshold;
+			weights[randomIndex] += mutationAmount;
+		}
+		
+		normalize();
+	}
+	
+	/**
+	 * Normalizes the vector based on its magnitude
+	 */
+	public void normalize() {
+		double magnitude = 0;
+		for (int i = 0; i < weights.length; i++) {
+			magnitude += Math.pow(weights[i], 2);
+		}
+		magnitude = Math.sqrt(magnitude);
+		
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] /= magnitude;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package tetris;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CheckpointTest {
+	private static final FeatureSet FEATURES = FeatureSet.parse("lines,holes,landing");
+
+	@TempDir
+	Path dir;
+
+	static List<WeightVector> island(int size, int weights, long seed) {
+		Random random = new Random(seed);
+		List<WeightVector> vectors = new ArrayList<WeightVector>();
+		for (int i = 0; i < size; i++) {
+			WeightVector v = new WeightVector(weights, random);
+			v.fitness = random.nextInt(10000) / 7.0;
+			vectors.add(v);
+		}
+		return vectors;
+	}
+
+	static Checkpoint checkpoint(int generation) {
+		FitnessEvaluator evaluator = new FitnessEvaluator(1, 1);
+		evaluator.features = FEATURES;
+		List<Population> islands = new ArrayList<Population>();
+		for (int i = 0; i < 3; i++) {
+			islands.add(new Population(5, island(5, FEATURES.size(), i), evaluator, null));
+		}
+		evaluator.shutdown();
+		return new Checkpoint(42, generation, 2, islands);
+	}
+
+	@Test
+	void saveAndLoadGiveBackTheSameRun() throws IOException {
+		Checkpoint saved = checkpoint(7);
+		Path file = dir.resolve("population.ckpt");
+		saved.save(file);
+		Checkpoint loaded = Checkpoint.load(file);
+
+		assertEquals(FEATURES, loaded.features);
+		assertEquals(42, loaded.seed);
+		assertEquals(7, loaded.generation);
+		assertEquals(5, loaded.populationSize);
+		assertEquals(2, loaded.firstIsland);
+		assertEquals(saved.islands.size(), loaded.islands.size());
+		for (int i = 0; i < saved.islands.size(); i++) {
+			List<WeightVector> a = saved.islands.get(i), b = loaded.islands.get(i);
+			assertEquals(a.size(), b.size());
+			for (int v = 0; v < a.size(); v++) {
+				assertArrayEquals(a.get(v).weights, b.get(v).weights);
+				assertEquals(a.get(v).fitness, b.get(v).fitness);
+			}
+		}
+		assertFalse(loaded.isPartial());
+	}
+
+	@Test
+	void partialBuildIsKeptAsPartial() throws IOException {
+		List<List<WeightVector>> built = Arrays.asList(island(4, FEATURES.size(), 1), island(2, FEATURES.size(), 2));
+		Path file = dir.resolve("population.ckpt");
+		new Checkpoint(42, FEATURES, 4, 0, built).save(file);
+		Checkpoint loaded = Checkpoint.load(file);
+		assertTrue(loaded.isPartial());
+		assertEquals(0, loaded.generation);
+		assertEquals(2, loaded.islands.get(1).size());
+	}
+
+	@Test
+	void generationRandomIsReplayable() {
+		assertEquals(draws(Checkpoint.generationRandom(5, 1, 3)), draws(Checkpoint.generationRandom(5, 1, 3)));
+		assertNotEquals(draws(Checkpoint.generationRandom(5, 1, 3)), draws(Checkpoint.generationRandom(5, 2, 3)));
+		assertNotEquals(draws(Checkpoint.generationRandom(5, 1, 3)), draws(Checkpoint.generationRandom(5, 1, 4)));
+		assertNotEquals(draws(Checkpoint.generationRandom(5, 1, 3)), draws(Checkpoint.generationRandom(6, 1, 3)));
+	}
+
+	static List<Long> draws(Random random) {
+		List<Long> draws = new ArrayList<Long>();
+		for (int i = 0; i < 8; i++) {
+			draws.add(random.nextLong());
+		}
+		return draws;
+	}
+
+	@Test
+	void otherRunsAreRejected() {
+		Checkpoint c = checkpoint(1);
+		assertDoesNotThrow(() -> c.checkResumable(2, 3, FEATURES));
+		// no features given means whatever the checkpoint holds
+		assertDoesNotThrow(() -> c.checkResumable(2, 3, null));
+		assertThrows(IllegalArgumentException.class, () -> c.checkResumable(0, 3, FEATURES));
+		assertThrows(IllegalArgumentException.class, () -> c.checkResumable(2, 2, FEATURES));
+		assertThrows(IllegalArgumentException.class, () -> c.checkResumable(2, 3, FeatureSet.CLASSIC));
+	}
+
+	@Test
+	void vectorsNotMatchingTheFeaturesAreRejected() throws IOException {
+		List<List<WeightVector>> built = Arrays.asList(island(2, FEATURES.size() + 1, 1));
+		Path file = dir.resolve("population.ckpt");
+		new Checkpoint(42, FEATURES, 2, 0, built).save(file);
+		assertThrows(IOException.class, () -> Checkpoint.load(file));
+	}
+
+	@Test
+	void otherFilesAreRejected() throws IOException {
+		Path file = dir.resolve("population.ckpt");
+		Files.write(file, new byte[] {'T', 'G', 'A', '1', 0, 0, 0, 0});
+		assertThrows(IOException.class, () -> Checkpoint.load(file));
+	}
+}
@@ -0,0 +1,63 @@
+package tetris;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileMigrationTest {
+	@TempDir
+	Path dir;
+
+	static List<Path> files(Path dir) throws IOException {
+		List<Path> files = new ArrayList<Path>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+			stream.forEach(files::add);
+		}
+		return files;
+	}
+
+	@Test
+	void migrantsReachTheirIslandOnce() throws IOException {
+		FileMigration migration = new FileMigration(dir);
+		List<WeightVector> migrants = Arrays.asList(new WeightVector(new double[] {0.5, -0.5}, 12), new WeightVector(new double[] {0.1, 0.9}, 3));
+		migration.send(0, 1, migrants);
+		assertEquals(0, migration.receive(0).size());
+		List<WeightVector> received = migration.receive(1);
+		assertEquals(2, received.size());
+		for (int i = 0; i < 2; i++) {
+			assertArrayEquals(migrants.get(i).weights, received.get(i).weights);
+			assertEquals(migrants.get(i).fitness, received.get(i).fitness);
+		}
+		assertEquals(0, migration.receive(1).size());
+		assertEquals(0, files(dir).size());
+	}
+
+	@Test
+	void filesCanBeReadByWhoeverCanReadTheDirectory() throws IOException {
+		assumeTrue(Files.getFileStore(dir).supportsFileAttributeView(PosixFileAttributeView.class), "no POSIX permissions");
+		Path shared = Files.createDirectory(dir.resolve("shared"));
+		Files.setPosixFilePermissions(shared, PosixFilePermissions.fromString("rwxrwxr-x"));
+		new FileMigration(shared).send(0, 1, Arrays.asList(new WeightVector(new double[] {1}, 1)));
+		FitnessCache cache = new FitnessCache(FeatureSet.CLASSIC, 10, 1e-3);
+		cache.save(shared.resolve("fitness.cache"));
+
+		List<Path> files = files(shared);
+		assertEquals(2, files.size());
+		for (Path file : files) {
+			assertEquals("rw-rw-r--", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)), file.toString());
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package tetris;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FitnessCacheTest {
+	private static final double[] A = {0.1, -0.2, 0.3};
+	private static final double[] B = {0.4, -0.5, 0.6};
+	private static final double[] C = {-0.7, 0.8, -0.9};
+	private static final double[] D = {0.2, 0.2, -0.2};
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void saveAndLoadKeepTheEntries() throws IOException {
+		FeatureSet features = FeatureSet.parse("lines,holes,wells");
+		FitnessCache cache = new FitnessCache(features, 10, 1e-3);
+		FitnessCache.Entry a = cache.entry(A);
+		a.add(120, 400, true, 1000);
+		a.add(80, 300, true, 1000);
+		// cut off by the clock halfway to the move cap, so it counts double
+		a.add(50, 500, false, 1000);
+		cache.entry(B).add(7, 30, true, 1000);
+
+		Path file = dir.resolve("fitness.cache");
+		cache.save(file);
+		FitnessCache loaded = FitnessCache.load(file, 10);
+
+		assertEquals(features, loaded.features);
+		assertEquals(1e-3, loaded.quantum);
+		assertEquals(2, loaded.size());
+		FitnessCache.Entry b = loaded.get(A);
+		assertNotNull(b);
+		assertEquals(3, b.games);
+		assertEquals(100.0, b.fitness(), 1e-9);
+		assertEquals(a.variance(), b.variance());
+		assertEquals(250, b.rows);
+		assertEquals(1200, b.pieces);
+		assertEquals(2, b.deaths);
+		assertEquals(7.0, loaded.get(B).fitness());
+	}
+
+	@Test
+	void closeWeightsShareAnEntry() {
+		FitnessCache cache = new FitnessCache(FeatureSet.parse("lines,holes,wells"), 10, 1e-3);
+		FitnessCache.Entry a = cache.entry(A);
+		assertSame(a, cache.entry(new double[] {A[0] + 1e-4, A[1] - 1e-4, A[2]}));
+		assertNull(cache.get(new double[] {A[0] + 1e-2, A[1], A[2]}));
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsDropped() throws IOException {
+		FitnessCache cache = new FitnessCache(FeatureSet.parse("lines,holes,wells"), 3, 1e-3);
+		cache.entry(A);
+		cache.entry(B);
+		cache.entry(C);
+		// A is used again, so B is now the least recently used
+		cache.get(A);
+		cache.entry(D);
+		assertEquals(3, cache.size());
+		assertNull(cache.get(B));
+		assertNotNull(cache.get(A));
+
+		// the order of use survives a save and load: A, C and D were used in the order C, D, A
+		Path file = dir.resolve("fitness.cache");
+		cache.save(file);
+		FitnessCache loaded = FitnessCache.load(file, 3);
+		loaded.entry(B);
+		assertNull(loaded.get(C));
+		assertNotNull(loaded.get(D));
+		assertNotNull(loaded.get(A));
+	}
+}
@@ -0,0 +1,135 @@
+package tetris;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Racing with games of fixed scores: each vector's games alternate between two scores, so where its confidence
+ * interval lies against the threshold, and so how many games it plays, is known in advance
+ */
+class FitnessEvaluatorTest {
+	private static final double THRESHOLD = 100;
+
+	// A game that ended with the given rows cleared
+	static class FixedGame extends State {
+		private final int rows;
+
+		FixedGame(int rows) {
+			this.rows = rows;
+			lost = true;
+		}
+
+		public int getRowsCleared() {
+			return rows;
+		}
+
+		public int getTurnNumber() {
+			return 1000;
+		}
+	}
+
+	// A player whose games score low and high by turns, or that fails every game if low is negative
+	static class FixedPlayer extends PlayerSkeleton {
+		private final int low;
+		private final int high;
+		private final AtomicInteger games = new AtomicInteger();
+
+		FixedPlayer(double[] weights, int low, int high) {
+			super(weights);
+			this.low = low;
+			this.high = high;
+		}
+
+		public State playGame(PieceSource pieces, long maxMoves, long timeBudgetMillis) {
+			if (low < 0) {
+				throw new IllegalStateException("game failed");
+			}
+			return new FixedGame(games.getAndIncrement() % 2 == 0 ? low : high);
+		}
+	}
+
+	// The scores of a vector are set by its first two weights
+	private FitnessEvaluator evaluator = new FitnessEvaluator(2, 1) {
+		protected PlayerSkeleton player(double[] weights) {
+			return new FixedPlayer(weights, (int) weights[0], (int) weights[1]);
+		}
+	};
+
+	{
+		evaluator.cache = new FitnessCache(evaluator.features, 100, 1e-6);
+	}
+
+	@AfterEach
+	void shutDown() {
+		evaluator.shutdown();
+	}
+
+	static WeightVector vector(int low, int high) {
+		return new WeightVector(new double[] {low, high, 0, 0, 0}, 0);
+	}
+
+	long games(WeightVector v) {
+		return evaluator.cache.get(v.weights).games;
+	}
+
+	@Test
+	void clearlyWeakVectorStopsAfterMinGames() {
+		WeightVector weak = vector(9, 11);
+		evaluator.evaluate(Arrays.asList(weak), THRESHOLD);
+		assertEquals(evaluator.minGames, games(weak));
+		assertEquals(1, evaluator.stoppedEarly.sum());
+		// 9, 11, 9
+		assertEquals(29/3.0, weak.fitness, 1e-9);
+	}
+
+	@Test
+	void clearlyStrongVectorPlaysNumGames() {
+		WeightVector strong = vector(990, 1010);
+		evaluator.evaluate(Arrays.asList(strong), THRESHOLD);
+		assertEquals(evaluator.numGames, games(strong));
+		assertEquals(1000, strong.fitness, 1e-9);
+		assertEquals(0, evaluator.stoppedEarly.sum());
+	}
+
+	@Test
+	void vectorStraddlingTheThresholdPlaysUpToMaxGames() {
+		WeightVector close = vector(50, 160);
+		evaluator.evaluate(Arrays.asList(close), THRESHOLD);
+		assertEquals(evaluator.maxGames, games(close));
+		assertEquals(105, close.fitness, 1e-9);
+	}
+
+	@Test
+	void vectorsOfOneBatchRaceIndependently() {
+		List<WeightVector> batch = new ArrayList<WeightVector>(Arrays.asList(vector(9, 11), vector(990, 1010), vector(50, 160)));
+		evaluator.evaluate(batch, THRESHOLD);
+		assertEquals(evaluator.minGames, games(batch.get(0)));
+		assertEquals(evaluator.numGames, games(batch.get(1)));
+		assertEquals(evaluator.maxGames, games(batch.get(2)));
+		assertEquals(evaluator.minGames + evaluator.numGames + evaluator.maxGames, evaluator.gamesPlayed.sum());
+	}
+
+	@Test
+	void withoutThresholdEveryVectorPlaysNumGames() {
+		WeightVector weak = vector(9, 11);
+		evaluator.evaluate(Arrays.asList(weak));
+		assertEquals(evaluator.numGames, games(weak));
+		assertEquals(10, weak.fitness, 1e-9);
+	}
+
+	@Test
+	void vectorWhoseGamesAllFailStops() {
+		WeightVector failing = vector(-1, -1);
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> evaluator.evaluate(Arrays.asList(failing), THRESHOLD));
+		assertEquals(0, games(failing));
+	}
+}
@@ -0,0 +1,119 @@
+package tetris;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * A run stopped while building its initial islands must carry on from the batches it had evaluated, playing
+ * only the games of the rest, and end up with the islands an uninterrupted run builds
+ */
+class InitialBuildTest {
+	private static final long SEED = 3243;
+	private static final int SIZE = 12;
+	private static final int ISLANDS = 2;
+	// batches of SIZE/10 vectors each island evaluates before the run is stopped
+	private static final int BATCHES_BEFORE_STOP = 3;
+
+	@TempDir
+	Path dir;
+	private ExecutorService workers = Executors.newFixedThreadPool(ISLANDS);
+
+	@AfterEach
+	void shutDown() {
+		workers.shutdownNow();
+	}
+
+	// Short games, so that a build takes seconds
+	static FitnessEvaluator evaluator() {
+		FitnessEvaluator evaluator = new FitnessEvaluator(2, SEED);
+		evaluator.numGames = 2;
+		evaluator.maxMoves = 60;
+		evaluator.cache = new FitnessCache(evaluator.features, 1000, 1e-3);
+		return evaluator;
+	}
+
+	// Stops the run by throwing from the batch after its first batches
+	static class StoppingEvaluator extends FitnessEvaluator {
+		private int batches = 0;
+
+		StoppingEvaluator() {
+			super(2, SEED);
+			numGames = 2;
+			maxMoves = 60;
+			cache = new FitnessCache(features, 1000, 1e-3);
+		}
+
+		public void evaluate(List<WeightVector> batch) {
+			synchronized (this) {
+				if (++batches > BATCHES_BEFORE_STOP*ISLANDS) {
+					throw new IllegalStateException("stopped");
+				}
+			}
+			super.evaluate(batch);
+		}
+	}
+
+	@Test
+	void restartCarriesOnFromTheSavedBatches() throws Exception {
+		Path checkpointFile = dir.resolve("population.ckpt");
+		Path cacheFile = dir.resolve("fitness.cache");
+
+		FitnessEvaluator uninterrupted = evaluator();
+		List<Population> expected = GeneticLearner.buildIslands(SIZE, null, uninterrupted, SEED, 0, ISLANDS, workers,
+				dir.resolve("uninterrupted.ckpt"), dir.resolve("uninterrupted.cache"));
+		long allGames = uninterrupted.gamesPlayed.sum();
+
+		StoppingEvaluator stopping = new StoppingEvaluator();
+		ExecutionException stopped = assertThrows(ExecutionException.class, () -> GeneticLearner.buildIslands(SIZE, null,
+				stopping, SEED, 0, ISLANDS, workers, checkpointFile, cacheFile));
+		assertInstanceOf(IllegalStateException.class, stopped.getCause());
+		stopping.shutdown();
+
+		Checkpoint partial = Checkpoint.load(checkpointFile);
+		assertTrue(partial.isPartial());
+		FitnessCache cache = FitnessCache.load(cacheFile, 1000);
+		int saved = 0;
+		for (List<WeightVector> island : partial.islands) {
+			saved += island.size();
+			for (WeightVector v : island) {
+				FitnessCache.Entry entry = cache.get(v.weights);
+				assertNotNull(entry, "saved vector missing from the cache");
+				assertEquals(2, entry.games);
+			}
+		}
+		assertTrue(saved > 0 && saved < SIZE*ISLANDS, saved + " vectors saved");
+
+		FitnessEvaluator restarted = evaluator();
+		restarted.cache = cache;
+		List<Population> resumed = GeneticLearner.buildIslands(partial.populationSize, partial, restarted, SEED, 0, ISLANDS,
+				workers, checkpointFile, cacheFile);
+		// only the vectors that were not saved play their games
+		assertEquals(allGames - saved*restarted.numGames, restarted.gamesPlayed.sum());
+		assertFalse(Checkpoint.load(checkpointFile).isPartial());
+		for (int i = 0; i < ISLANDS; i++) {
+			List<WeightVector> a = expected.get(i).vectors, b = resumed.get(i).vectors;
+			assertEquals(a.size(), b.size());
+			for (int v = 0; v < a.size(); v++) {
+				assertArrayEquals(a.get(v).weights, b.get(v).weights, "island " + i + " vector " + v);
+				assertEquals(a.get(v).fitness, b.get(v).fitness, "island " + i + " vector " + v);
+			}
+		}
+		uninterrupted.shutdown();
+		restarted.shutdown();
+	}
+}
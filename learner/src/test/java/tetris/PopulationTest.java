@@ -0,0 +1,98 @@
+package tetris;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PopulationTest {
+	// Fitness drawn from few values, so that most vectors tie with others as they do early in a run
+	static List<WeightVector> vectors(int n, long seed) {
+		Random random = new Random(seed);
+		List<WeightVector> vectors = new ArrayList<WeightVector>();
+		for (int i = 0; i < n; i++) {
+			vectors.add(new WeightVector(new double[] {i}, random.nextInt(3) == 0 ? random.nextInt(5) : random.nextDouble()*100));
+		}
+		return vectors;
+	}
+
+	static List<Double> fitnesses(List<WeightVector> vectors) {
+		List<Double> fitnesses = new ArrayList<Double>();
+		for (WeightVector v : vectors) {
+			fitnesses.add(v.fitness);
+		}
+		Collections.sort(fitnesses, Comparator.reverseOrder());
+		return fitnesses;
+	}
+
+	// Whether b holds exactly the vectors of a, each once
+	static void assertSameVectors(List<WeightVector> a, List<WeightVector> b) {
+		IdentityHashMap<WeightVector, Integer> count = new IdentityHashMap<WeightVector, Integer>();
+		for (WeightVector v : a) {
+			count.merge(v, 1, Integer::sum);
+		}
+		for (WeightVector v : b) {
+			count.merge(v, -1, Integer::sum);
+		}
+		for (int c : count.values()) {
+			assertEquals(0, c);
+		}
+	}
+
+	@Test
+	void fittestReturnsExactlyTheTopK() {
+		List<WeightVector> all = vectors(200, 1);
+		List<Double> sorted = fitnesses(all);
+		Population p = new Population(200, all, null, new Random(2));
+		for (int k = 0; k <= all.size(); k++) {
+			assertEquals(sorted.subList(0, k), fitnesses(p.fittest(k)), "k = " + k);
+			assertSameVectors(all, p.vectors);
+		}
+	}
+
+	@Test
+	void purgeKeepsTheFittest() {
+		List<WeightVector> all = vectors(300, 3);
+		Population p = new Population(100, all, null, new Random(4));
+		p.purge();
+		assertEquals(fitnesses(all).subList(0, 100), fitnesses(p.vectors));
+	}
+
+	@Test
+	void selectionThresholdIsTheFitnessToBeat() {
+		List<WeightVector> all = vectors(150, 5);
+		Population p = new Population(100, all, null, new Random(6));
+		assertEquals(fitnesses(all).get(99), p.selectionThreshold());
+		Population small = new Population(200, all, null, new Random(6));
+		assertEquals(Double.NEGATIVE_INFINITY, small.selectionThreshold());
+	}
+
+	@Test
+	void sampleGivesTheTwoFittestOfIt() {
+		List<WeightVector> all = vectors(100, 7);
+		Population p = new Population(100, all, null, new Random(8));
+		for (int i = 0; i < 50; i++) {
+			WeightVector[] parents = p.samplePopulation();
+			// the sample is swapped to the front of the list
+			List<WeightVector> sample = p.vectors.subList(0, (int) (p.originalSize*Population.sampleProp));
+			List<Double> sorted = fitnesses(sample);
+			assertEquals(sorted.get(0), parents[0].fitness);
+			assertEquals(sorted.get(1), parents[1].fitness);
+			assertNotSame(parents[0], parents[1]);
+			assertSameVectors(all, p.vectors);
+		}
+		Population pair = new Population(2, vectors(2, 9), null, new Random(10));
+		assertNotNull(pair.samplePopulation());
+		Population single = new Population(2, vectors(1, 9), null, new Random(10));
+		assertNull(single.samplePopulation());
+	}
+}
@@ -0,0 +1,31 @@
+package tetris;
+
+/**
+ * Scores many boards at once from their features, laid out by Node.collectFeatures()
+ * Each score is added up in the same order as Node.calculateScore(), so it is the same to the last bit.
+ */
+interface BatchScorer {
+	/**
+	 * @param weights one for each feature
+	 * @param features features[f][k] is feature f of board k
+	 * @param n number of boards
+	 * @param scores receives the score of each board
+	 */
+	void score(double[] weights, double[][] features, int n, double[] scores);
+	
+	/**
+	 * The Vector API scorer if simd is set and the JVM was started with --add-modules jdk.incubator.vector,
+	 * the scalar one otherwise. The Vector API class is only loaded by name, so without the module it is
+	 * never linked.
+	 */
+	static BatchScorer create(boolean simd) {
+		if (simd && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+			try {
+				return (BatchScorer) Class.forName("tetris.VectorBatchScorer").getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException | LinkageError e) {
+				// fall back to the scalar scorer
+			}
+		}
+		return new ScalarBatchScorer();
+	}
+}
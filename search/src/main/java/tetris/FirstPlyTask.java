@@ -0,0 +1,45 @@
+package tetris;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.DoubleAccumulator;
+
+/**
+ * Searches a range of first-ply moves, splitting it in half until each task is small enough to run on one board.
+ * Every task writes only to its own slice of values, so the result is the same as the serial search.
+ */
+class FirstPlyTask extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	// First-ply moves searched by a single task
+	private static final int SPLIT_THRESHOLD = 2;
+
+	private PlayerSkeleton player;
+	private Node board;
+	private int[] candidates;
+	private double[] values;
+	private DoubleAccumulator best;
+	private int from, to;
+
+	public FirstPlyTask(PlayerSkeleton player, Node board, int[] candidates, double[] values, DoubleAccumulator best, int from, int to) {
+		this.player = player;
+		this.board = board;
+		this.candidates = candidates;
+		this.values = values;
+		this.best = best;
+		this.from = from;
+		this.to = to;
+	}
+
+	protected void compute() {
+		if (to - from <= SPLIT_THRESHOLD) {
+			// Each task needs its own board to apply moves to
+			Node s = board.copy();
+			for (int k = from; k < to; k++) {
+				values[k] = player.firstPlyValue(s, candidates[k], best);
+			}
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		invokeAll(new FirstPlyTask(player, board, candidates, values, best, from, mid),
+				new FirstPlyTask(player, board, candidates, values, best, mid, to));
+	}
+}
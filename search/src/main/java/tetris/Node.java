@@ -0,0 +1,440 @@
+package tetris;
+
+import java.util.SplittableRandom;
+
+class Node {
+	public static final int COLS = 10;
+	public static final int ROWS = 21;
+	//maximum number of moves that can be applied before they are undone
+	public static final int MAX_DEPTH = 8;
+
+	//each row of the board as a bitmask, same layout as State
+	private int[] rows = new int[ROWS];
+	private int[] top = new int[COLS];
+
+	//undo records, one per applied move - preallocated so applying a move never allocates
+	private int depth = 0;
+	private int[][] undoTop = new int[MAX_DEPTH][COLS];
+	private int[] undoPlacement = new int[MAX_DEPTH];
+	private int[] undoHeight = new int[MAX_DEPTH];
+	//rows cleared by each move, in the order they were removed
+	private int[][] undoCleared = new int[MAX_DEPTH][4];
+	private int[] undoNumCleared = new int[MAX_DEPTH];
+	//aggregateHeight, bumpiness, holes, wellSum before each move
+	private int[][] undoFeatures = new int[MAX_DEPTH][4];
+	private long[] undoHash = new long[MAX_DEPTH];
+
+	//Zobrist keys - the hash of a board is EMPTY_HASH xor the key of every filled cell
+	private static final long EMPTY_HASH;
+	private static final long[] CELL_KEYS = new long[ROWS*COLS];
+	static {
+		SplittableRandom random = new SplittableRandom(3243);
+		EMPTY_HASH = random.nextLong();
+		for (int i = 0; i < CELL_KEYS.length; i++) {
+			CELL_KEYS[i] = random.nextLong();
+		}
+	}
+	private long hash;
+
+	//scratch space for picking the beam of each ply, indexed by the number of plies left to search
+	public int[][] beamCandidates = new int[MAX_DEPTH][PlacementTable.MAX_PLACEMENTS];
+	public double[][] beamScores = new double[MAX_DEPTH][PlacementTable.MAX_PLACEMENTS];
+
+	//heuristic features of the current board, kept up to date by applyMove() and undoMove()
+	private int aggregateHeight;
+	private int bumpiness;
+	//a single total, grown by the cells each piece leaves empty under it - it is rebuilt when lines are cleared
+	private int holes;
+	private int wellSum;
+
+	//the features boards are scored by - the classic ones are the features above, kept up to date incrementally,
+	//any other set is evaluated from the board each time it is scored
+	public FeatureSet features;
+	private boolean classic;
+	//one for each of features
+	public double[] heuristicWeights;
+	//scratch space for collectFeatures() - the features of each placement of a piece, one array per feature
+	public double[][] placementFeatures;
+	//scratch space for calculateScore() with features other than the classic ones
+	private double[][] scoreFeatures;
+	//sweeps the board for the classic features when they have to be rebuilt, and for the set's features when
+	//they are not the classic ones - the same extractor if they are
+	private FeatureExtractor classicExtractor;
+	private FeatureExtractor extractor;
+	//column data of the board shared by the placements in collectFeatures(), and the tops after one of them
+	private int[] columnWells = new int[COLS];
+	private int[] columnSteps = new int[COLS-1];
+	private int[] topAfter = new int[COLS];
+
+	// Copies the board so that moves can be applied and undone without touching the original
+	public Node(double[] hW, int[] originalRows, int[] originalTop) {
+		this(FeatureSet.CLASSIC, hW, originalRows, originalTop);
+	}
+
+	public Node(FeatureSet features, double[] hW, int[] originalRows, int[] originalTop) {
+		this.features = features;
+		classic = features.isClassic();
+		this.heuristicWeights = hW;
+		placementFeatures = new double[features.size()][PlacementTable.MAX_PLACEMENTS];
+		scoreFeatures = new double[features.size()][1];
+		classicExtractor = new FeatureExtractor(FeatureSet.CLASSIC);
+		extractor = classic ? classicExtractor : new FeatureExtractor(features);
+		System.arraycopy(originalRows, 0, rows, 0, ROWS);
+		System.arraycopy(originalTop, 0, top, 0, COLS);
+		rebuildFeatures();
+		rebuildHash();
+	}
+
+	// A new board in the same position, with no moves to undo
+	public Node copy() {
+		return new Node(features, heuristicWeights, rows, top);
+	}
+
+	private void rebuildHash() {
+		hash = EMPTY_HASH;
+		for(int r = 0; r < ROWS; r++) {
+			for(int row = rows[r]; row != 0; row &= row-1) {
+				hash ^= CELL_KEYS[r*COLS + Integer.numberOfTrailingZeros(row)];
+			}
+		}
+	}
+
+	public long getHash() {
+		return hash;
+	}
+
+	// Recomputes every feature from scratch, in one sweep of the board
+	private void rebuildFeatures() {
+		classicExtractor.sweep(rows, top);
+		aggregateHeight = classicExtractor.aggregateHeight;
+		bumpiness = classicExtractor.bumpiness;
+		holes = classicExtractor.holes;
+		wellSum = classicExtractor.wellSum;
+	}
+
+	// Similar logic to makeMove() in State, applies a single move to this board in place
+	// The move is recorded so that it can be reverted with undoMove()
+	// @param p - placement number of the move, see PlacementTable
+	// @return false if the move ends the game - the board is left unchanged and there is nothing to undo
+	public boolean applyMove(int p) {
+		int slot = PlacementTable.slot[p];
+		int width = PlacementTable.width[p];
+		int cells = p*PlacementTable.MAX_SIZE;
+		//height if the first column makes contact
+		int height = top[slot]-PlacementTable.columnBottom[cells];
+		//for each column beyond the first in the piece
+		for(int c = 1; c < width;c++) {
+			height = Math.max(height,top[slot+c]-PlacementTable.columnBottom[cells+c]);
+		}
+
+		//check if game ended
+		if(height+PlacementTable.height[p] >= ROWS) {
+			return false;
+		}
+
+		System.arraycopy(top, 0, undoTop[depth], 0, COLS);
+		undoPlacement[depth] = p;
+		undoHeight[depth] = height;
+		int[] features = undoFeatures[depth];
+		features[0] = aggregateHeight;
+		features[1] = bumpiness;
+		features[2] = holes;
+		features[3] = wellSum;
+		undoHash[depth] = hash;
+
+		//only the piece columns and their neighbours can change bumpiness and wells
+		int first = Math.max(0, slot-1);
+		int last = Math.min(COLS-1, slot+width);
+		for(int c = first; c <= last; c++) {
+			wellSum -= wellAt(c);
+			if(c < last) {
+				bumpiness -= Math.abs(top[c] - top[c+1]);
+			}
+		}
+
+		//for each row of the piece - fill in the appropriate blocks
+		for(int h = 0; h < PlacementTable.height[p]; h++) {
+			int row = PlacementTable.rowCells[cells+h];
+			rows[height+h] |= row;
+			for(; row != 0; row &= row-1) {
+				hash ^= CELL_KEYS[(height+h)*COLS + Integer.numberOfTrailingZeros(row)];
+			}
+		}
+
+		//adjust top, and count the cells left empty under the piece
+		for(int c = 0; c < width; c++) {
+			int newHoles = height+PlacementTable.columnBottom[cells+c]-top[slot+c];
+			int newTop = height+PlacementTable.columnTop[cells+c];
+			holes += newHoles;
+			aggregateHeight += newTop-top[slot+c];
+			top[slot+c] = newTop;
+		}
+
+		for(int c = first; c <= last; c++) {
+			wellSum += wellAt(c);
+			if(c < last) {
+				bumpiness += Math.abs(top[c] - top[c+1]);
+			}
+		}
+
+		int linesCompleted = 0;
+
+		//check for full rows - starting at the top
+		for(int r = height+PlacementTable.height[p]-1; r >= height; r--) {
+			//if the row was full - remove it and slide above stuff down
+			if(rows[r] == State.FULL_ROW) {
+				undoCleared[depth][linesCompleted] = r;
+				linesCompleted++;
+				System.arraycopy(rows, r+1, rows, r, ROWS-1-r);
+				rows[ROWS-1] = 0;
+				//lower the top of each column
+				for(int c = 0; c < COLS; c++) {
+					int bit = 1 << c;
+					top[c]--;
+					while(top[c]>=1 && (rows[top[c]-1] & bit)==0)	top[c]--;
+				}
+			}
+		}
+
+		//clearing lines moves every column, so start over
+		if(linesCompleted > 0) {
+			rebuildFeatures();
+			rebuildHash();
+		}
+
+		undoNumCleared[depth] = linesCompleted;
+		depth++;
+		return true;
+	}
+
+	// Reverts the last move made by applyMove()
+	public void undoMove() {
+		depth--;
+		int p = undoPlacement[depth];
+		int cells = p*PlacementTable.MAX_SIZE;
+		int height = undoHeight[depth];
+
+		//put the cleared rows back, in the reverse order they were removed
+		for(int k = undoNumCleared[depth]-1; k >= 0; k--) {
+			int r = undoCleared[depth][k];
+			System.arraycopy(rows, r, rows, r+1, ROWS-1-r);
+			rows[r] = State.FULL_ROW;
+		}
+
+		//take the piece back out
+		for(int h = 0; h < PlacementTable.height[p]; h++) {
+			rows[height+h] &= ~PlacementTable.rowCells[cells+h];
+		}
+
+		System.arraycopy(undoTop[depth], 0, top, 0, COLS);
+		int[] features = undoFeatures[depth];
+		aggregateHeight = features[0];
+		bumpiness = features[1];
+		holes = features[2];
+		wellSum = features[3];
+		hash = undoHash[depth];
+	}
+
+	// Writes the features of the board after each placement of the piece to placementFeatures, in the order of
+	// calculateScore(), for scoring them all at once with a BatchScorer. Placements that lose the game are skipped.
+	// The wells and steps between columns of the current board are worked out once and shared by every placement,
+	// and a placement that clears no line only changes the columns it touches and their neighbours, so its
+	// features are found from those without touching the board. Only placements that clear lines are applied
+	// and undone.
+	// With features other than the classic ones, every placement is applied, evaluated and undone.
+	// @param placements receives the placement number of each board
+	// @return number of boards written
+	public int collectFeatures(int piece, int[] placements) {
+		if(!classic) {
+			return evaluatePlacements(piece, placements);
+		}
+		int live = 0;
+		double[] lines = placementFeatures[0], aggregateHeights = placementFeatures[1], bumpinesses = placementFeatures[2];
+		double[] holeCounts = placementFeatures[3], wellSums = placementFeatures[4];
+		for(int c = 0; c < COLS; c++) {
+			columnWells[c] = wellAt(top, c);
+			if(c < COLS-1) {
+				columnSteps[c] = Math.abs(top[c] - top[c+1]);
+			}
+		}
+		System.arraycopy(top, 0, topAfter, 0, COLS);
+
+		for(int p = PlacementTable.pieceStart[piece]; p < PlacementTable.pieceStart[piece+1]; p++) {
+			int slot = PlacementTable.slot[p];
+			int width = PlacementTable.width[p];
+			int cells = p*PlacementTable.MAX_SIZE;
+			int height = top[slot]-PlacementTable.columnBottom[cells];
+			for(int c = 1; c < width; c++) {
+				height = Math.max(height,top[slot+c]-PlacementTable.columnBottom[cells+c]);
+			}
+			if(height+PlacementTable.height[p] >= ROWS) {
+				continue;
+			}
+
+			boolean clears = false;
+			for(int h = 0; h < PlacementTable.height[p]; h++) {
+				if((rows[height+h] | PlacementTable.rowCells[cells+h]) == State.FULL_ROW) {
+					clears = true;
+				}
+			}
+			if(clears) {
+				applyMove(p);
+				lines[live] = undoNumCleared[depth-1];
+				aggregateHeights[live] = aggregateHeight;
+				bumpinesses[live] = bumpiness;
+				holeCounts[live] = holes;
+				wellSums[live] = wellSum;
+				placements[live] = p;
+				live++;
+				undoMove();
+				continue;
+			}
+
+			int newAggregateHeight = aggregateHeight;
+			int newHoles = holes;
+			for(int c = 0; c < width; c++) {
+				int newTop = height+PlacementTable.columnTop[cells+c];
+				newHoles += height+PlacementTable.columnBottom[cells+c]-top[slot+c];
+				newAggregateHeight += newTop-top[slot+c];
+				topAfter[slot+c] = newTop;
+			}
+			int newBumpiness = bumpiness;
+			int newWellSum = wellSum;
+			int first = Math.max(0, slot-1);
+			int last = Math.min(COLS-1, slot+width);
+			for(int c = first; c <= last; c++) {
+				newWellSum += wellAt(topAfter, c) - columnWells[c];
+				if(c < last) {
+					newBumpiness += Math.abs(topAfter[c] - topAfter[c+1]) - columnSteps[c];
+				}
+			}
+			for(int c = 0; c < width; c++) {
+				topAfter[slot+c] = top[slot+c];
+			}
+
+			lines[live] = 0;
+			aggregateHeights[live] = newAggregateHeight;
+			bumpinesses[live] = newBumpiness;
+			holeCounts[live] = newHoles;
+			wellSums[live] = newWellSum;
+			placements[live] = p;
+			live++;
+		}
+		return live;
+	}
+
+	// collectFeatures() for any feature set
+	private int evaluatePlacements(int piece, int[] placements) {
+		int live = 0;
+		for(int p = PlacementTable.pieceStart[piece]; p < PlacementTable.pieceStart[piece+1]; p++) {
+			if(applyMove(p)) {
+				evaluateFeatures(placementFeatures, live);
+				placements[live] = p;
+				live++;
+				undoMove();
+			}
+		}
+		return live;
+	}
+
+	// Writes every feature of the set for the board as it stands to out[f][k], the last applied move being the placement
+	public void evaluateFeatures(double[][] out, int k) {
+		if(depth == 0) {
+			extractor.extract(rows, top, -1, 0, 0, 0, out, k);
+			return;
+		}
+		int p = undoPlacement[depth-1];
+		int height = undoHeight[depth-1];
+		int lines = undoNumCleared[depth-1];
+		int pieceCellsCleared = 0;
+		//rows were cleared from the top down, so each index is still the row's place before any were removed
+		for(int i = 0; i < lines; i++) {
+			pieceCellsCleared += Integer.bitCount(PlacementTable.rowCells[p*PlacementTable.MAX_SIZE + undoCleared[depth-1][i]-height]);
+		}
+		extractor.extract(rows, top, p, height, lines, pieceCellsCleared, out, k);
+	}
+
+	// Scores the board as it stands, crediting the lines cleared by the last applied move
+	public double calculateScore() {
+		if(!classic) {
+			evaluateFeatures(scoreFeatures, 0);
+			double score = heuristicWeights[0] * scoreFeatures[0][0];
+			for(int f = 1; f < scoreFeatures.length; f++) {
+				score += heuristicWeights[f] * scoreFeatures[f][0];
+			}
+			return score;
+		}
+		int completeLines = depth > 0 ? undoNumCleared[depth-1] : 0;
+		return heuristicWeights[0] * completeLines + heuristicWeights[1] * aggregateHeight + heuristicWeights[2] * bumpiness + heuristicWeights[3] * holes + heuristicWeights[4] * wellSum;
+	}
+
+	/**
+	 * Highest score a single placement on this board could reach, whatever the weights.
+	 * Without a row close enough to full to be cleared, a placement adds a piece's four cells to the aggregate
+	 * height, cannot fill a hole, and can only lower the bumpiness and wells of the columns it touches and their
+	 * neighbours. With such a row any feature may drop to 0. Each feature is then taken at whichever end of its
+	 * range its weight favours.
+	 * Only worked out for the classic features; with any other set there is no bound.
+	 */
+	public double leafScoreBound() {
+		if(!classic) {
+			return Double.POSITIVE_INFINITY;
+		}
+		int clearable = 0;
+		for(int r = 0; r < ROWS; r++) {
+			if(Integer.bitCount(rows[r]) >= COLS-PlacementTable.MAX_SIZE) {
+				clearable++;
+			}
+		}
+		int maxLines = Math.min(clearable, PlacementTable.MAX_SIZE);
+		int minAggregateHeight = 0, minBumpiness = 0, minHoles = 0, minWellSum = 0;
+		if(maxLines == 0) {
+			minAggregateHeight = aggregateHeight + PIECE_CELLS;
+			minHoles = holes;
+			//a piece touches at most MAX_SIZE+2 columns, and the pairs between them
+			int window = PlacementTable.MAX_SIZE+2;
+			int mostBumpiness = 0, mostWells = 0;
+			for(int c = 0; c + window <= COLS; c++) {
+				int b = 0, w = 0;
+				for(int i = c; i < c + window; i++) {
+					w += wellAt(i);
+					if(i < c + window - 1) {
+						b += Math.abs(top[i] - top[i+1]);
+					}
+				}
+				mostBumpiness = Math.max(mostBumpiness, b);
+				mostWells = Math.max(mostWells, w);
+			}
+			minBumpiness = Math.max(0, bumpiness - mostBumpiness);
+			minWellSum = Math.max(0, wellSum - mostWells);
+		}
+		return featureBound(heuristicWeights[0], 0, maxLines)
+				+ featureBound(heuristicWeights[1], minAggregateHeight, ROWS*COLS)
+				+ featureBound(heuristicWeights[2], minBumpiness, ROWS*(COLS-1))
+				+ featureBound(heuristicWeights[3], minHoles, ROWS*COLS)
+				+ featureBound(heuristicWeights[4], minWellSum, COLS*ROWS*(ROWS+1)/2);
+	}
+
+	// cells in every piece
+	private static final int PIECE_CELLS = 4;
+
+	// highest value a weighted feature can take in the range min to max
+	private static double featureBound(double weight, int min, int max) {
+		return weight > 0 ? weight*max : weight*min;
+	}
+
+	// well height term of a single column, as summed into wellSum
+	private int wellAt(int j) {
+		return wellAt(top, j);
+	}
+
+	private static int wellAt(int[] top, int j) {
+		int wellHeight = FeatureExtractor.wellDepth(top, j);
+		return wellHeight * (wellHeight+1) / 2;
+	}
+
+	public double getScore() {
+		return calculateScore();
+	}
+
+}
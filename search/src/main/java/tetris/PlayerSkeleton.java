@@ -0,0 +1,372 @@
+package tetris;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.DoubleAccumulator;
+
+public class PlayerSkeleton {
+	public static final int COLS = 10;
+	public static final int ROWS = 21;
+	public static final int N_PIECES = 7;
+	//indices for legalMoves
+	public static final int ORIENT = 0;
+	public static final int SLOT = 1;
+
+	//weights of the classic features the player is run with
+	public static final double[] WEIGHTS = {0.1636736030816534, -0.11117594223369093, -0.20390418721234355, -0.9501423421384158, -0.12846584618379997};
+
+	//one for each of config.features - completeLines, aggregateHeight, bumpiness, holes, wellSum by default
+	public double[] heuristicWeights;
+	public SearchConfig config;
+	//only set when the config asks for more than one thread
+	private ForkJoinPool searchPool;
+	//one pool for each parallelism, shared by every player searching with it, so that players made in a loop
+	//(the learners, the benchmarks) do not each leave a pool of threads behind
+	private static final Map<Integer, ForkJoinPool> SEARCH_POOLS = new ConcurrentHashMap<Integer, ForkJoinPool>();
+	//values of searched boards, shared by every game this player plays - null if disabled
+	public TranspositionTable table;
+	//scores the boards at the last ply, see SearchConfig.simd
+	private BatchScorer scorer;
+
+	public PlayerSkeleton(double[] hW){
+		this(hW, new SearchConfig());
+	}
+
+	public PlayerSkeleton(double[] hW, SearchConfig config){
+		heuristicWeights = hW;
+		this.config = config;
+		if (config.depth < 1 || config.depth > Node.MAX_DEPTH) {
+			throw new IllegalArgumentException("search depth must be between 1 and " + Node.MAX_DEPTH);
+		}
+		if (hW.length != config.features.size()) {
+			throw new IllegalArgumentException(hW.length + " weights given for the " + config.features.size() + " features " + config.features);
+		}
+		if (config.parallelism > 1) {
+			searchPool = SEARCH_POOLS.computeIfAbsent(config.parallelism, ForkJoinPool::new);
+		}
+		if (config.tableBits() > 0) {
+			table = new TranspositionTable(config.tableBits());
+		}
+		scorer = BatchScorer.create(config.simd);
+	}
+
+	//implement this function to have a working system
+	public int pickMove(State s, int[][] legalMoves) {
+		int bestMove;
+		bestMove = expectimaxSearch(new Node(config.features, heuristicWeights, s.getRows(), s.getTop()), legalMoves, s.getNextPiece());
+		return bestMove;
+	}
+
+	/**
+	 * Assigns a score to each legal move which is the expected score of playing the best moves for the next
+	 * config.depth-1 pieces after it, every piece being equally likely to come next.
+	 * At depth 2 this is the average of optimal scores for every possible piece playable after the legal move is played.
+	 * Optimal score for each piece is obtained by searching every orient and position. When config.beamWidth is set,
+	 * plies that are searched further only expand that many placements, the ones with the best static score.
+	 * Returns the move corresponding to the best average score among legal moves.
+	 * When config.parallelism is above 1 the first-ply moves are searched on a fork-join pool of that size.
+	 * When config.pruning is on and the depth is 2, first-ply moves are searched best static score first and a move
+	 * stops being searched once its average is certain to fall below the best one so far. This returns the same move.
+	 * @author laichengyu
+	 * 
+	 * @param s state to search from
+	 * @param legalMoves of the nextPiece, as listed by State
+	 * @param nextPiece integer representing the next piece
+	 * @return best move to be played at depth-1
+	 */
+	public int expectimaxSearch(Node s, int[][] legalMoves, int nextPiece) {
+		double bestAvg = Integer.MIN_VALUE;
+		int bestDepthOneMove = 0;
+		double[] averages = new double[legalMoves.length];
+
+		// State lists the legal moves of a piece in placement order
+		int first = PlacementTable.pieceStart[nextPiece];
+		int[] candidates = new int[legalMoves.length];
+		for(int i = 0; i < legalMoves.length; i++) {
+			candidates[i] = first + i;
+		}
+		int n = legalMoves.length;
+		// leafScoreBound() only bounds the classic features
+		boolean prune = config.pruning && config.depth == 2 && config.features.isClassic();
+		if (config.depth > 1 && (config.beamWidth > 0 || prune)) {
+			// Moves left out of the beam, and losing moves, are never picked
+			Arrays.fill(averages, Double.NEGATIVE_INFINITY);
+			n = selectBeam(s, nextPiece, candidates, new double[n], config.beamWidth > 0 ? config.beamWidth : n);
+		}
+
+		// Best average found so far, shared by every task
+		DoubleAccumulator best = prune ? new DoubleAccumulator(Math::max, Integer.MIN_VALUE) : null;
+		double[] values = new double[n];
+		if (searchPool != null) {
+			searchPool.invoke(new FirstPlyTask(this, s, candidates, values, best, 0, n));
+		} else {
+			for(int k = 0; k < n; k++) {
+				values[k] = firstPlyValue(s, candidates[k], best);
+			}
+		}
+		for(int k = 0; k < n; k++) {
+			averages[candidates[k]-first] = values[k];
+		}
+
+		for(int i = 0; i < averages.length; i++) {
+			if(averages[i] > bestAvg) {
+				bestAvg = averages[i];
+				bestDepthOneMove = i;
+			}
+		}
+
+		return bestDepthOneMove;
+	}
+
+	/**
+	 * Value of playing first-ply placement p on s.
+	 * 
+	 * @param s board to play the move on
+	 * @param p placement number of the move, see PlacementTable
+	 * @param best best first-ply value so far, or null to search the move in full
+	 * @return the value of the move, or negative infinity if it was cut off below best
+	 */
+	public double firstPlyValue(Node s, int p, DoubleAccumulator best) {
+		if (best == null) {
+			return valueAfterMove(s, p, config.depth-1);
+		}
+		double value = prunedValueAfterMove(s, p, best.get());
+		best.accumulate(value);
+		return value;
+	}
+
+	/**
+	 * Plays placement p on s and scores the board after it, looking the given number of unknown pieces ahead.
+	 * s is left as it was given.
+	 * 
+	 * @param s board to play the move on
+	 * @param p placement number of the move, see PlacementTable
+	 * @param plies number of unknown pieces to search after the move
+	 * @return static score of the board after the move if plies is 0, its expected value otherwise
+	 */
+	public double valueAfterMove(Node s, int p, int plies) {
+		// A losing move leaves every piece after it with the lowest score
+		if(!s.applyMove(p)) {
+			return Integer.MIN_VALUE;
+		}
+		double value = plies == 0 ? s.getScore() : expectedValue(s, plies);
+		s.undoMove();
+		return value;
+	}
+
+	/**
+	 * Averages the best score of every piece that can be played on s, searching plies-1 more pieces after each.
+	 * The value only depends on the board, so it is looked up in and saved to the transposition table.
+	 * 
+	 * @param s board to play the pieces on
+	 * @param plies number of unknown pieces to search, at least 1
+	 * @return average of the optimal scores over all pieces
+	 */
+	public double expectedValue(Node s, int plies) {
+		long key = TranspositionTable.key(s.getHash(), plies);
+		if (table != null) {
+			double cached = table.probe(key);
+			if (!Double.isNaN(cached)) {
+				return cached;
+			}
+		}
+		double avg = 0;
+		for(int j = 0; j < N_PIECES; j++) {
+			avg += bestScore(s, j, plies);
+		}
+		avg /= N_PIECES;
+		if (table != null) {
+			table.store(key, avg);
+		}
+		return avg;
+	}
+
+	/**
+	 * Same as valueAfterMove(s, p, 1), except that it stops as soon as the average is certain to be below cutoff.
+	 * Pieces not searched yet are assumed to reach the optimistic bound of Node.leafScoreBound().
+	 * 
+	 * @param s board to play the move on
+	 * @param p placement number of the move, see PlacementTable
+	 * @param cutoff value the average has to reach to be of interest
+	 * @return average of the optimal scores over all pieces, or negative infinity if it is below cutoff
+	 */
+	public double prunedValueAfterMove(Node s, int p, double cutoff) {
+		// A losing move leaves every piece after it with the lowest score
+		if(!s.applyMove(p)) {
+			return Integer.MIN_VALUE;
+		}
+		long key = TranspositionTable.key(s.getHash(), 1);
+		if (table != null) {
+			double cached = table.probe(key);
+			if (!Double.isNaN(cached)) {
+				s.undoMove();
+				return cached;
+			}
+		}
+		double bound = s.leafScoreBound();
+		// Keeps rounding in the bound from cutting off a move that ties with the best
+		double margin = PRUNING_MARGIN * (1 + Math.abs(cutoff));
+		double avg = 0;
+		for(int j = 0; j < N_PIECES; j++) {
+			if((avg + bound*(N_PIECES-j))/N_PIECES < cutoff - margin) {
+				s.undoMove();
+				return Double.NEGATIVE_INFINITY;
+			}
+			avg += bestScore(s, j, 1);
+		}
+		avg /= N_PIECES;
+		if (table != null) {
+			table.store(key, avg);
+		}
+		s.undoMove();
+		return avg;
+	}
+
+	// Relative slack given to bounds before they cut off a move
+	private static final double PRUNING_MARGIN = 1e-9;
+
+	/**
+	 * Best value over the placements of a piece on s, searching plies-1 more pieces after each.
+	 * 
+	 * @param s board to play the piece on
+	 * @param piece integer representing the piece
+	 * @param plies number of unknown pieces left to search, counting this one
+	 * @return optimal score of the piece
+	 */
+	public double bestScore(Node s, int piece, int plies) {
+		double bestScore = Integer.MIN_VALUE;
+		int[] candidates = s.beamCandidates[plies];
+		if (plies == 1) {
+			// The last piece searched: every placement is only scored, so score them together
+			double[] scores = s.beamScores[plies];
+			int n = evaluateAll(s, piece, candidates, scores);
+			for(int k = 0; k < n; k++) {
+				if (scores[k] > bestScore) {
+					bestScore = scores[k];
+				}
+			}
+			return bestScore;
+		}
+		int first = PlacementTable.pieceStart[piece];
+		int n = PlacementTable.pieceStart[piece+1] - first;
+		for(int k = 0; k < n; k++) {
+			candidates[k] = first + k;
+		}
+		if (config.beamWidth > 0) {
+			n = selectBeam(s, piece, candidates, s.beamScores[plies], config.beamWidth);
+		}
+		for(int k = 0; k < n; k++) {
+			double newScore = valueAfterMove(s, candidates[k], plies-1);
+			if (newScore > bestScore) {
+				bestScore = newScore;
+			}
+		}
+		return bestScore;
+	}
+
+	/**
+	 * Static score of every placement of the piece, from one pass over the board (see Node.collectFeatures)
+	 * 
+	 * @param s board to score the placements on
+	 * @param piece integer representing the piece
+	 * @param placements receives the placement number of each score, at least as long as the piece has placements
+	 * @param scores receives the scores, as long as placements
+	 * @return number of placements scored - those that lose the game are left out
+	 */
+	public int evaluateAll(Node s, int piece, int[] placements, double[] scores) {
+		int n = s.collectFeatures(piece, placements);
+		scorer.score(s.heuristicWeights, s.placementFeatures, n, scores);
+		return n;
+	}
+	
+	/**
+	 * Puts the width placements of the piece with the best static score at the front of candidates, best first.
+	 * Placements that lose the game are dropped.
+	 * 
+	 * @param s board to play the placements on
+	 * @param piece integer representing the piece
+	 * @param candidates receives the placement numbers, at least as long as the piece has placements
+	 * @param scores scratch space for the static scores, as long as candidates
+	 * @param width number of placements to keep
+	 * @return number of placements kept
+	 */
+	private int selectBeam(Node s, int piece, int[] candidates, double[] scores, int width) {
+		int live = evaluateAll(s, piece, candidates, scores);
+		int kept = Math.min(live, width);
+		for(int i = 0; i < kept; i++) {
+			int best = i;
+			for(int j = i+1; j < live; j++) {
+				if(scores[j] > scores[best]) {
+					best = j;
+				}
+			}
+			int p = candidates[i];
+			candidates[i] = candidates[best];
+			candidates[best] = p;
+			double score = scores[i];
+			scores[i] = scores[best];
+			scores[best] = score;
+		}
+		return kept;
+	}
+
+	public static void main(String[] args) {
+		State s = new State();
+//		new TFrame(s);
+		// A single game has the machine to itself, so search on every core unless told otherwise
+		// Usage: PlayerSkeleton [threads] [depth] [beamWidth]
+		SearchConfig config = new SearchConfig();
+		config.parallelism = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		if (args.length > 1) {
+			config.depth = Integer.parseInt(args[1]);
+		}
+		if (args.length > 2) {
+			config.beamWidth = Integer.parseInt(args[2]);
+		}
+		PlayerSkeleton p = new PlayerSkeleton(WEIGHTS, config);
+		while(!s.hasLost()) {
+			s.makeMove(p.pickMove(s,s.legalMoves()));
+//			s.draw();
+//			s.drawNext(0,0);
+//			try {
+//				Thread.sleep(300);
+//			} catch (InterruptedException e) {
+//				e.printStackTrace();
+//			}
+		}
+		System.out.println("You have completed "+s.getRowsCleared()+" rows.");
+		if (p.table != null) {
+			System.out.println("Transposition table: " + p.table);
+		}
+	}
+
+	// Plays the game and returns the number of rows cleared
+	public int playGame() {
+		return playGame(new RandomPieceSource());
+	}
+
+	// Plays the game with pieces from the given source and returns the number of rows cleared
+	public int playGame(PieceSource pieces) {
+		return playGame(pieces, Long.MAX_VALUE, Long.MAX_VALUE).getRowsCleared();
+	}
+	
+	// Moves between looks at the clock in playGame
+	private static final int TIME_CHECK_INTERVAL = 1024;
+	
+	// Plays the game with pieces from the given source until it is lost, maxMoves moves have been made
+	// or about timeBudgetMillis have passed, and returns the final state - hasLost() tells whether it ended
+	// or was cut off, getTurnNumber() how many pieces were played
+	public State playGame(PieceSource pieces, long maxMoves, long timeBudgetMillis) {
+		State s = new State(pieces);
+		long deadline = timeBudgetMillis == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + timeBudgetMillis*1000000;
+		for (long moves = 0; !s.hasLost() && moves < maxMoves; moves++) {
+			if (moves % TIME_CHECK_INTERVAL == 0 && deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+				break;
+			}
+			s.makeMove(pickMove(s, s.legalMoves()));
+		}
+		return s;
+	}
+}
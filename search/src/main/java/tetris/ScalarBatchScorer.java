@@ -0,0 +1,17 @@
+package tetris;
+
+class ScalarBatchScorer implements BatchScorer {
+	public void score(double[] weights, double[][] features, int n, double[] scores) {
+		double[] first = features[0];
+		for (int k = 0; k < n; k++) {
+			scores[k] = weights[0] * first[k];
+		}
+		for (int f = 1; f < weights.length; f++) {
+			double w = weights[f];
+			double[] feature = features[f];
+			for (int k = 0; k < n; k++) {
+				scores[k] += w * feature[k];
+			}
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package tetris;
+
+/**
+ * Settings for how a PlayerSkeleton searches for its moves
+ */
+class SearchConfig {
+	// Threads used to search first-ply moves. 1 searches on the calling thread.
+	public int parallelism = 1;
+	// The transposition table holds 2^transpositionTableBits boards. 0 turns it off, and -1 (the default) uses
+	// DEEP_TABLE_BITS when depth is above 2 and no table otherwise. Over a 2000-move game at depth 2 boards
+	// repeat in 0.03% of probes and the table makes each move about 10% slower (304us against 272us) besides
+	// its 1MB, so only deeper searches, with about 6% hits at depth 3, get one.
+	public int transpositionTableBits = -1;
+	public static final int DEEP_TABLE_BITS = 16;
+	// Number of pieces searched, counting the known next piece. Every piece after it is averaged over all 7.
+	public int depth = 2;
+	// Placements expanded per piece at plies that are searched further, picked by static score. 0 expands all of them.
+	public int beamWidth = 0;
+	// Cut off first-ply moves that cannot beat the best one found so far. Only used at depth 2, where it is exact.
+	public boolean pruning = true;
+	// Score the placements of the last piece searched together, with the Vector API if the JVM has
+	// jdk.incubator.vector (--add-modules jdk.incubator.vector). Picks the same moves either way.
+	public boolean simd = true;
+	// Features boards are scored by, one weight each. Pruning only applies to the classic ones.
+	public FeatureSet features = FeatureSet.CLASSIC;
+
+	// Size of the transposition table to search with, resolving the default
+	public int tableBits() {
+		if (transpositionTableBits >= 0) {
+			return transpositionTableBits;
+		}
+		return depth > 2 ? DEEP_TABLE_BITS : 0;
+	}
+}
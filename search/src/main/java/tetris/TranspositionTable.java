@@ -0,0 +1,81 @@
+package tetris;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed size cache of board values keyed by the Zobrist hash of the board.
+ * Each hash maps to a bucket of two entries. A new entry goes in the first one and pushes the
+ * previous first entry into the second, evicting whatever was there.
+ * Entries are stored as (hash ^ value, value) pairs so that a read torn by another thread's write
+ * fails the hash check instead of returning the wrong value, which lets searches on several
+ * threads share a table without locking.
+ */
+class TranspositionTable {
+	private long[] keys;
+	private long[] values;
+	private int bucketMask;
+
+	private LongAdder probes = new LongAdder();
+	private LongAdder hits = new LongAdder();
+
+	//mixed into the board hash so that the same board searched to different depths gets different entries
+	private static final long[] PLY_KEYS = new long[Node.MAX_DEPTH];
+	static {
+		SplittableRandom random = new SplittableRandom(2018);
+		for (int i = 0; i < PLY_KEYS.length; i++) {
+			PLY_KEYS[i] = random.nextLong();
+		}
+	}
+
+	// Table key of a board hash searched the given number of plies deep
+	public static long key(long hash, int plies) {
+		return hash ^ PLY_KEYS[plies];
+	}
+
+	public TranspositionTable(int bits) {
+		keys = new long[1 << bits];
+		values = new long[1 << bits];
+		bucketMask = (1 << bits) - 2;
+	}
+
+	// Returns the value stored for the hash, or NaN if it is not in the table
+	public double probe(long hash) {
+		probes.increment();
+		int i = (int) (hash ^ (hash >>> 32)) & bucketMask;
+		for (int j = i; j < i + 2; j++) {
+			long value = values[j];
+			if ((keys[j] ^ value) == hash) {
+				hits.increment();
+				return Double.longBitsToDouble(value);
+			}
+		}
+		return Double.NaN;
+	}
+
+	public void store(long hash, double value) {
+		int i = (int) (hash ^ (hash >>> 32)) & bucketMask;
+		long bits = Double.doubleToRawLongBits(value);
+		keys[i+1] = keys[i];
+		values[i+1] = values[i];
+		keys[i] = hash ^ bits;
+		values[i] = bits;
+	}
+
+	public long getProbes() {
+		return probes.sum();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public double getHitRate() {
+		long p = getProbes();
+		return p == 0 ? 0 : (double) getHits() / p;
+	}
+
+	public String toString() {
+		return getHits() + "/" + getProbes() + " hits (" + String.format("%.2f", getHitRate()*100) + "%)";
+	}
+}
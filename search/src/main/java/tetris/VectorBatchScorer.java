@@ -0,0 +1,30 @@
+package tetris;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Scores a lane's worth of boards per step with the Vector API (jdk.incubator.vector), one board per lane
+ * Multiplies and adds are kept separate (no fused multiply-add) so that scores match the scalar ones exactly.
+ */
+class VectorBatchScorer implements BatchScorer {
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+	
+	public void score(double[] weights, double[][] features, int n, double[] scores) {
+		int k = 0;
+		for (int bound = SPECIES.loopBound(n); k < bound; k += SPECIES.length()) {
+			DoubleVector score = DoubleVector.fromArray(SPECIES, features[0], k).mul(weights[0]);
+			for (int f = 1; f < weights.length; f++) {
+				score = score.add(DoubleVector.fromArray(SPECIES, features[f], k).mul(weights[f]));
+			}
+			score.intoArray(scores, k);
+		}
+		for (; k < n; k++) {
+			double score = weights[0] * features[0][k];
+			for (int f = 1; f < weights.length; f++) {
+				score += weights[f] * features[f][k];
+			}
+			scores[k] = score;
+		}
+	}
+}
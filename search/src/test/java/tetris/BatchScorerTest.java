@@ -0,0 +1,45 @@
+package tetris;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The Vector API scorer must give the same scores as the scalar one to the last bit, including the boards past
+ * the last full lane
+ */
+class BatchScorerTest {
+	@Test
+	void vectorScoresMatchScalarScores() {
+		assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(), "jdk.incubator.vector is not loaded");
+		BatchScorer vector = BatchScorer.create(true);
+		assertInstanceOf(VectorBatchScorer.class, vector);
+		BatchScorer scalar = new ScalarBatchScorer();
+
+		SplittableRandom random = new SplittableRandom(3243);
+		// the classic features, and every feature there is
+		for (int size : new int[] {FeatureSet.CLASSIC.size(), Feature.values().length}) {
+			double[] weights = new double[size];
+			double[][] features = new double[size][PlacementTable.MAX_PLACEMENTS];
+			for (int f = 0; f < size; f++) {
+				weights[f] = random.nextDouble(-1, 1);
+				for (int k = 0; k < PlacementTable.MAX_PLACEMENTS; k++) {
+					// counts like the board features, with a fraction now and then like the landing height
+					features[f][k] = random.nextInt(200) + (random.nextBoolean() ? 0.5 : 0);
+				}
+			}
+			// every n up to the most placements a piece has, so every number of boards left after the full lanes
+			for (int n = 0; n <= PlacementTable.MAX_PLACEMENTS; n++) {
+				double[] expected = new double[PlacementTable.MAX_PLACEMENTS];
+				double[] actual = new double[PlacementTable.MAX_PLACEMENTS];
+				scalar.score(weights, features, n, expected);
+				vector.score(weights, features, n, actual);
+				assertArrayEquals(expected, actual, size + " features, " + n + " boards");
+			}
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package tetris;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The features collectFeatures() works out for every placement at once must be those of applying each placement
+ * and evaluating the board, and the placements that lose the game must be left out
+ */
+class CollectFeaturesTest {
+	private static final int GAMES = 20;
+	// moves of each game played by a PlayerSkeleton before the random ones
+	private static final int PLAYED_MOVES = 50;
+
+	@Test
+	void classicFeaturesMatchAppliedMoves() {
+		assertCollectedFeaturesMatch(FeatureSet.CLASSIC);
+	}
+
+	@Test
+	void otherFeaturesMatchAppliedMoves() {
+		assertCollectedFeaturesMatch(FeatureSet.parse("landing,eroded,rowtransitions,columntransitions,holes,wells,blockades,welldepth"));
+	}
+
+	// Plays a while with the usual weights, so that lines are cleared, then random moves until each game is lost,
+	// so that nearly full boards with losing placements come up, and checks every piece on every board on the way
+	static void assertCollectedFeaturesMatch(FeatureSet features) {
+		SplittableRandom random = new SplittableRandom(3243);
+		SearchConfig config = new SearchConfig();
+		config.depth = 1;
+		PlayerSkeleton player = new PlayerSkeleton(PlayerSkeleton.WEIGHTS, config);
+		int rowsCleared = 0;
+		double[] weights = new double[features.size()];
+		int[] placements = new int[PlacementTable.MAX_PLACEMENTS];
+		double[][] expected = new double[features.size()][1];
+		int losing = 0;
+		for (int game = 0; game < GAMES; game++) {
+			State s = new State(new RandomPieceSource(game));
+			while (!s.hasLost()) {
+				Node node = new Node(features, weights, s.getRows(), s.getTop());
+				for (int piece = 0; piece < State.N_PIECES; piece++) {
+					int live = node.collectFeatures(piece, placements);
+					int k = 0;
+					for (int p = PlacementTable.pieceStart[piece]; p < PlacementTable.pieceStart[piece+1]; p++) {
+						if (!node.applyMove(p)) {
+							losing++;
+							continue;
+						}
+						node.evaluateFeatures(expected, 0);
+						node.undoMove();
+						assertEquals(p, placements[k], "placement " + k + " of piece " + piece);
+						for (int f = 0; f < features.size(); f++) {
+							assertEquals(expected[f][0], node.placementFeatures[f][k], features.features[f].key + " of placement " + p);
+						}
+						k++;
+					}
+					assertEquals(k, live, "placements of piece " + piece);
+				}
+				int[][] legalMoves = s.legalMoves();
+				s.makeMove(s.getTurnNumber() < PLAYED_MOVES ? player.pickMove(s, legalMoves) : random.nextInt(legalMoves.length));
+			}
+			rowsCleared += s.getRowsCleared();
+		}
+		assertTrue(rowsCleared > 0, "no line was cleared");
+		assertTrue(losing > 0, "no placement lost the game");
+	}
+}
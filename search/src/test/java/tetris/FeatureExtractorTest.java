@@ -0,0 +1,153 @@
+package tetris;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The features sweep() works out a row at a time must be those of counting cell by cell, on boards of every height
+ * up to columns reaching the top playable row
+ */
+class FeatureExtractorTest {
+	private static final int BOARDS = 2000;
+	// rows a piece can fill
+	private static final int PLAYABLE = State.ROWS-1;
+
+	@Test
+	void sweepMatchesCellCounts() {
+		SplittableRandom random = new SplittableRandom(3243);
+		for (int b = 0; b < BOARDS; b++) {
+			// every fourth board has a column up to the ceiling
+			assertSweepMatches(randomBoard(random, random.nextInt(PLAYABLE+1), b % 4 == 0));
+		}
+	}
+
+	@Test
+	void sweepMatchesCellCountsOnCeilingBoards() {
+		int[][] boards = {
+			// one full column
+			column(0, PLAYABLE),
+			// one full column with a hole at the bottom
+			column(State.COLS-1, PLAYABLE),
+			// every column full but for one cell of each row
+			new int[PLAYABLE],
+		};
+		boards[1][0] = 0;
+		for (int r = 0; r < PLAYABLE; r++) {
+			boards[2][r] = State.FULL_ROW & ~(1 << (r % State.COLS));
+		}
+		for (int[] rows : boards) {
+			assertSweepMatches(rows);
+		}
+	}
+
+	// rows with cell c filled from the floor up to the given height
+	private static int[] column(int c, int height) {
+		int[] rows = new int[PLAYABLE];
+		for (int r = 0; r < height; r++) {
+			rows[r] = 1 << c;
+		}
+		return rows;
+	}
+
+	// Random columns no higher than maxHeight, their top cells filled and those below filled at random
+	private static int[] randomBoard(SplittableRandom random, int maxHeight, boolean ceiling) {
+		int[] rows = new int[PLAYABLE];
+		for (int c = 0; c < State.COLS; c++) {
+			int height = ceiling && c == 0 ? PLAYABLE : random.nextInt(maxHeight+1);
+			for (int r = 0; r < height; r++) {
+				if (r == height-1 || random.nextInt(4) != 0) {
+					rows[r] |= 1 << c;
+				}
+			}
+		}
+		return rows;
+	}
+
+	private static void assertSweepMatches(int[] playableRows) {
+		int[] rows = new int[State.ROWS];
+		System.arraycopy(playableRows, 0, rows, 0, PLAYABLE);
+		int[] top = new int[State.COLS];
+		for (int c = 0; c < State.COLS; c++) {
+			for (int r = 0; r < PLAYABLE; r++) {
+				if (filled(rows, r, c)) {
+					top[c] = r+1;
+				}
+			}
+		}
+
+		int aggregateHeight = 0;
+		int bumpiness = 0;
+		int wellSum = 0;
+		int wellDepth = 0;
+		int holes = 0;
+		int blockades = 0;
+		for (int c = 0; c < State.COLS; c++) {
+			aggregateHeight += top[c];
+			if (c < State.COLS-1) {
+				bumpiness += Math.abs(top[c] - top[c+1]);
+			}
+			int left = c > 0 ? top[c-1] : State.ROWS;
+			int right = c < State.COLS-1 ? top[c+1] : State.ROWS;
+			int depth = Math.min(left, right) - top[c];
+			for (int d = 1; d <= depth; d++) {
+				wellSum += d;
+			}
+			wellDepth = Math.max(wellDepth, depth);
+			int lowestHole = -1;
+			for (int r = top[c]-1; r >= 0; r--) {
+				if (!filled(rows, r, c)) {
+					holes++;
+					lowestHole = r;
+				}
+			}
+			for (int r = lowestHole+1; lowestHole >= 0 && r < top[c]; r++) {
+				if (filled(rows, r, c)) {
+					blockades++;
+				}
+			}
+		}
+		// the floor and the walls count as filled, and the space above the playable rows as empty
+		int rowTransitions = 0;
+		int columnTransitions = 0;
+		for (int r = 0; r < PLAYABLE; r++) {
+			for (int c = -1; c < State.COLS; c++) {
+				if (filledOrWall(rows, r, c) != filledOrWall(rows, r, c+1)) {
+					rowTransitions++;
+				}
+			}
+		}
+		for (int c = 0; c < State.COLS; c++) {
+			for (int r = 0; r <= PLAYABLE; r++) {
+				boolean below = r == 0 || filled(rows, r-1, c);
+				boolean cell = r < PLAYABLE && filled(rows, r, c);
+				if (below != cell) {
+					columnTransitions++;
+				}
+			}
+		}
+
+		FeatureExtractor extractor = new FeatureExtractor(FeatureSet.parse("rowtransitions,columntransitions,holes,wells,blockades,welldepth"));
+		extractor.sweep(rows, top);
+		String board = Arrays.toString(playableRows);
+		assertEquals(aggregateHeight, extractor.aggregateHeight, "aggregate height of " + board);
+		assertEquals(bumpiness, extractor.bumpiness, "bumpiness of " + board);
+		assertEquals(wellSum, extractor.wellSum, "wells of " + board);
+		assertEquals(wellDepth, extractor.wellDepth, "well depth of " + board);
+		assertEquals(holes, extractor.holes, "holes of " + board);
+		assertEquals(blockades, extractor.blockades, "blockades of " + board);
+		assertEquals(rowTransitions, extractor.rowTransitions, "row transitions of " + board);
+		assertEquals(columnTransitions, extractor.columnTransitions, "column transitions of " + board);
+	}
+
+	private static boolean filled(int[] rows, int r, int c) {
+		return (rows[r] & (1 << c)) != 0;
+	}
+
+	private static boolean filledOrWall(int[] rows, int r, int c) {
+		return c < 0 || c >= State.COLS || filled(rows, r, c);
+	}
+}
@@ -0,0 +1,61 @@
+package tetris;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Searching the first-ply moves on a fork-join pool must pick the same moves as searching them one by one
+ */
+class ParallelSearchTest {
+	private static final int MOVES = 300;
+
+	@Test
+	void parallelSearchPicksTheSameMoves() {
+		SearchConfig serial = new SearchConfig();
+		serial.parallelism = 1;
+		SearchConfig parallel = new SearchConfig();
+		parallel.parallelism = 4;
+		assertSameMoves(serial, parallel, 3243);
+	}
+
+	@Test
+	void parallelSearchWithoutPruningPicksTheSameMoves() {
+		SearchConfig serial = new SearchConfig();
+		serial.parallelism = 1;
+		serial.pruning = false;
+		SearchConfig parallel = new SearchConfig();
+		parallel.parallelism = 4;
+		parallel.pruning = false;
+		assertSameMoves(serial, parallel, 7);
+	}
+
+	@Test
+	void playersShareTheirSearchThreads() {
+		SearchConfig parallel = new SearchConfig();
+		parallel.parallelism = 4;
+		State s = new State(new RandomPieceSource(1));
+		for (int i = 0; i < 50; i++) {
+			new PlayerSkeleton(PlayerSkeleton.WEIGHTS, parallel).pickMove(s, s.legalMoves());
+		}
+		long workers = Thread.getAllStackTraces().keySet().stream()
+				.filter(t -> t.getName().startsWith("ForkJoinPool-")).count();
+		assertTrue(workers <= parallel.parallelism, workers + " search threads");
+	}
+
+	// Plays the same pieces with both configs side by side and checks every move they pick
+	static void assertSameMoves(SearchConfig a, SearchConfig b, long seed) {
+		int[] pieces = RandomPieceSource.generate(seed, MOVES+1);
+		State sa = new State(new SequencePieceSource(pieces, new RandomPieceSource(seed)));
+		State sb = new State(new SequencePieceSource(pieces, new RandomPieceSource(seed)));
+		PlayerSkeleton pa = new PlayerSkeleton(PlayerSkeleton.WEIGHTS, a);
+		PlayerSkeleton pb = new PlayerSkeleton(PlayerSkeleton.WEIGHTS, b);
+		for (int turn = 0; turn < MOVES && !sa.hasLost(); turn++) {
+			int move = pa.pickMove(sa, sa.legalMoves());
+			assertEquals(move, pb.pickMove(sb, sb.legalMoves()), "move " + turn);
+			sa.makeMove(move);
+			sb.makeMove(move);
+		}
+	}
+}
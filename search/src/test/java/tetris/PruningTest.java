@@ -0,0 +1,49 @@
+package tetris;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Cutting off first-ply moves at depth 2 must not change the move picked
+ */
+class PruningTest {
+	private static final int MOVES = 400;
+
+	@Test
+	void pruningPicksTheSameMoves() {
+		assertSameMovesWithoutPruning(PlayerSkeleton.WEIGHTS, 3243);
+	}
+
+	@Test
+	void pruningPicksTheSameMovesUntilTheGameIsLost() {
+		// only minds the holes, so the board fills up and moves start losing the game
+		assertSameMovesWithoutPruning(new double[] {0, 0, 0, -1, 0}, 11);
+	}
+
+	// Records a game played with pruning, then plays its pieces again without and checks every move
+	static void assertSameMovesWithoutPruning(double[] weights, long seed) {
+		SearchConfig pruned = new SearchConfig();
+		pruned.pruning = true;
+		RecordingPieceSource recording = new RecordingPieceSource(new RandomPieceSource(seed));
+		State s = new State(recording);
+		PlayerSkeleton p = new PlayerSkeleton(weights, pruned);
+		int[] moves = new int[MOVES];
+		int turns = 0;
+		for (; turns < MOVES && !s.hasLost(); turns++) {
+			moves[turns] = p.pickMove(s, s.legalMoves());
+			s.makeMove(moves[turns]);
+		}
+
+		SearchConfig full = new SearchConfig();
+		full.pruning = false;
+		int[] pieces = recording.getPieces();
+		State replay = new State(new SequencePieceSource(pieces, new RandomPieceSource(seed)));
+		PlayerSkeleton q = new PlayerSkeleton(weights, full);
+		for (int turn = 0; turn < turns; turn++) {
+			assertEquals(moves[turn], q.pickMove(replay, replay.legalMoves()), "move " + turn);
+			replay.makeMove(moves[turn]);
+		}
+		assertEquals(s.hasLost(), replay.hasLost());
+	}
+}